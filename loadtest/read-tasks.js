@@ -0,0 +1,29 @@
+// k6 scenario: many concurrent clients polling a user's task list and single tasks.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e USER_ID=1 -e TASK_IDS=1,2,3 read-tasks.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080';
+const userId = __ENV.USER_ID;
+const taskIds = (__ENV.TASK_IDS || '').split(',').filter((id) => id !== '');
+
+export const options = {
+    scenarios: {
+        polling: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 5000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    // Later pages bypass the cache, so every iteration reaches PostgreSQL at least once
+    const list = http.get(`${baseUrl}/api/tasks/user/${userId}?limit=20&after=${__ENV.AFTER || ''}`);
+    check(list, { 'list 200': (r) => r.status === 200 });
+
+    const id = taskIds[Math.floor(Math.random() * taskIds.length)];
+    const task = http.get(`${baseUrl}/api/tasks/${id}`);
+    check(task, { 'task 200': (r) => r.status === 200 });
+}
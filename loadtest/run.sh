@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling under the same load.
+# Requires docker (with compose) and jq. Results go to loadtest/results/<mode>.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+VUS="${VUS:-5000}"
+DURATION="${DURATION:-60s}"
+BASE_URL="http://localhost:8080"
+mkdir -p loadtest/results
+
+wait_for_app() {
+    for _ in $(seq 1 60); do
+        if curl -fs "$BASE_URL/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo "application did not become healthy" >&2
+    exit 1
+}
+
+seed() {
+    local user_id tasks
+    user_id=$(curl -fs -X POST "$BASE_URL/api/users" -H 'Content-Type: application/json' \
+        -d "{\"name\":\"Load Test\",\"email\":\"load.$(date +%s%N)@example.com\"}" | jq -r .id)
+    tasks=$(jq -n --argjson uid "$user_id" '[range(0; 200) | {title: "Load task \(.)", userId: $uid}]')
+    curl -fs -X POST "$BASE_URL/api/tasks/batch" -H 'Content-Type: application/json' -d "$tasks" > /dev/null
+    echo "$user_id"
+}
+
+for mode in platform virtual; do
+    enabled=false
+    [ "$mode" = virtual ] && enabled=true
+    echo "== $mode threads"
+    VIRTUAL_THREADS_ENABLED=$enabled JAVA_TOOL_OPTIONS="-Djdk.tracePinnedThreads=short" \
+        docker compose up -d --build --force-recreate app
+    wait_for_app
+
+    user_id=$(seed)
+    first_page=$(curl -fs "$BASE_URL/api/tasks/user/$user_id?limit=20")
+    after=$(echo "$first_page" | jq -r .nextCursor)
+    task_ids=$(echo "$first_page" | jq -r '[.items[].id] | join(",")')
+
+    docker run --rm -i --network host -v "$PWD/loadtest:/scripts" grafana/k6 run \
+        -e BASE_URL="$BASE_URL" -e USER_ID="$user_id" -e TASK_IDS="$task_ids" -e AFTER="$after" \
+        -e VUS="$VUS" -e DURATION="$DURATION" \
+        --summary-export "/scripts/results/$mode.json" /scripts/read-tasks.js > /dev/null
+
+    pinned=$(docker compose logs app | grep -c '<== monitors' || true)
+    jq -r --arg mode "$mode" --arg pinned "$pinned" \
+        '"\($mode): \(.metrics.http_reqs.rate | floor) req/s, p99 \(.metrics.http_req_duration["p(99)"] | floor) ms, failed \(.metrics.http_req_failed.value * 100 | floor)%, pinned stacks \($pinned)"' \
+        "loadtest/results/$mode.json"
+done
@@ -0,0 +1,62 @@
+package cue.edu.co.parcial;
+
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
+import cue.edu.co.parcial.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database, so benchmarks exercise the real Spring/JPA wiring.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        String[] defaults = {
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN"
+        };
+        String[] args = new String[defaults.length + extraArgs.length];
+        System.arraycopy(defaults, 0, args, 0, defaults.length);
+        System.arraycopy(extraArgs, 0, args, defaults.length, extraArgs.length);
+        return new SpringApplicationBuilder(ParcialApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Inserts one user owning {@code taskCount} tasks and returns the user id.
+     */
+    public static Long seedUserWithTasks(ConfigurableApplicationContext context, int taskCount) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        return transaction.execute(status -> {
+            User user = userRepository.save(new User("Bench User", "bench." + System.nanoTime() + "@example.com"));
+            List<Task> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(new Task("Task " + i, "Description " + i, i % 2 == 0, user));
+            }
+            taskRepository.saveAll(tasks);
+            return user.getId();
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package cue.edu.co.parcial.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes task lists the way the MVC message converter does, using an
+ * {@link ObjectMapper} configured like Spring Boot's default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskJsonSerializationBenchmark {
+
+    @Param({"1", "50", "500", "5000"})
+    public int size;
+
+    private ObjectWriter listWriter;
+    private ObjectWriter pageWriter;
+    private List<TaskDTO> tasks;
+    private CursorPage<TaskDTO> page;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, TaskDTO.class));
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructParametricType(CursorPage.class, TaskDTO.class));
+
+        tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            tasks.add(new TaskDTO(id, "Task " + id, "Description for task " + id, id % 2 == 0, 1L, 0L));
+        }
+        page = new CursorPage<>(tasks, "MTIz");
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeCursorPage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,111 @@
+package cue.edu.co.parcial.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time of a 500-task page per wire format, with full tasks and
+ * with the {@code fields=id,title} projection. The payload sizes, raw and
+ * gzipped, are measured once per trial during setup and printed, so they stay
+ * out of the timed code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskWireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+    private static final String DESCRIPTION = "Description ".repeat(40);
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"full", "sparse"})
+    public String shape;
+
+    private ObjectWriter writer;
+    private CursorPage<?> page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory()).build();
+        boolean sparse = "sparse".equals(shape);
+        List<Object> items = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            items.add(sparse ? sparseTask(id) : new TaskDTO(id, "Task " + id, DESCRIPTION, id % 2 == 0, 1L, 0L));
+        }
+        page = new CursorPage<>(items, "NTAw");
+        JavaType itemType = sparse
+                ? objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class)
+                : objectMapper.getTypeFactory().constructType(TaskDTO.class);
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructParametricType(CursorPage.class, itemType));
+
+        byte[] payload = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s/%s payload: %d bytes, %d bytes gzipped%n",
+                format, shape, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        return gzip(writer.writeValueAsBytes(page));
+    }
+
+    private JsonFactory factory() {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private static Map<String, Object> sparseTask(long id) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("id", id);
+        task.put("title", "Task " + id);
+        return task;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+package cue.edu.co.parcial.exception;
+
+import cue.edu.co.parcial.exception.GlobalExceptionHandler.ErrorResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an error response from the point the service throws: building the
+ * exception (message formatting and stack capture) plus the handler's
+ * {@link ErrorResponse}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private long id;
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handler.handleResourceNotFoundException(new ResourceNotFoundException("Task", "id", ++id));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> badRequest() {
+        return handler.handleIllegalArgumentException(new IllegalArgumentException("Invalid cursor: " + ++id));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unexpected() {
+        return handler.handleGlobalException(new IllegalStateException("boom " + ++id));
+    }
+}
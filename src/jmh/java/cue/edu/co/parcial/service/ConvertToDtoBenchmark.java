@@ -0,0 +1,51 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToDtoBenchmark {
+
+    private Task task;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("Bench User", "bench@example.com");
+        user.setId(1L);
+        user.setVersion(3L);
+
+        task = new Task("Bench task", "A description long enough to look like real data", false, user);
+        task.setId(42L);
+        task.setVersion(7L);
+    }
+
+    @Benchmark
+    public TaskDTO taskToDto() {
+        return TaskService.convertToDTO(task);
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return UserService.convertToDTO(user);
+    }
+}
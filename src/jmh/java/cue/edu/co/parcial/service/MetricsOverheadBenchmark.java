@@ -0,0 +1,76 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.BenchmarkContext;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.VersionedPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics instrumentation on database-bound service calls:
+ * {@code on} runs with service/repository timers and Hibernate statistics,
+ * {@code off} denies every meter and disables statistics collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final int SEEDED_TASKS = 500;
+
+    @Param({"on", "off"})
+    public String metrics;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long userId;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "on".equals(metrics)
+                ? BenchmarkContext.start("metrics-on")
+                : BenchmarkContext.start("metrics-off",
+                        "--management.metrics.enable.all=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        taskService = context.getBean(TaskService.class);
+        userId = BenchmarkContext.seedUserWithTasks(context, SEEDED_TASKS);
+        secondPageCursor = taskService.getTasksByUserId(userId, null, pageSize()).getPage().getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public VersionedPage<TaskDTO> getTasksByUserIdSecondPage() {
+        return taskService.getTasksByUserId(userId, secondPageCursor, pageSize());
+    }
+
+    @Benchmark
+    public long getTaskListVersion() {
+        return taskService.getTaskListVersion(userId);
+    }
+
+    private static int pageSize() {
+        return Integer.parseInt(CursorPagination.DEFAULT_LIMIT);
+    }
+}
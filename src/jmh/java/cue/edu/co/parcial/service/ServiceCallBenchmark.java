@@ -0,0 +1,104 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.BenchmarkContext;
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.dto.VersionedPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls through the full Spring proxy chain (cache and transaction
+ * advice) against an embedded H2 database. Single-item and first-page reads
+ * are normally cache hits. Later pages and the list version, a single
+ * change_seq lookup, always reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceCallBenchmark {
+
+    private static final int SEEDED_TASKS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UserService userService;
+    private Long userId;
+    private Long taskId;
+    private String secondPageCursor;
+    private boolean completed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("service-calls");
+        taskService = context.getBean(TaskService.class);
+        userService = context.getBean(UserService.class);
+        userId = BenchmarkContext.seedUserWithTasks(context, SEEDED_TASKS);
+
+        CursorPage<TaskDTO> firstPage = taskService.getTasksByUserId(userId, null, defaultLimit()).getPage();
+        taskId = firstPage.getItems().getFirst().getId();
+        secondPageCursor = firstPage.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO getUserById() {
+        return userService.getUserById(userId);
+    }
+
+    @Benchmark
+    public TaskDTO getTaskById() {
+        return taskService.getTaskById(taskId);
+    }
+
+    @Benchmark
+    public VersionedPage<TaskDTO> getTasksByUserIdFirstPage() {
+        return taskService.getTasksByUserId(userId, null, defaultLimit());
+    }
+
+    @Benchmark
+    public VersionedPage<TaskDTO> getTasksByUserIdSecondPage() {
+        return taskService.getTasksByUserId(userId, secondPageCursor, defaultLimit());
+    }
+
+    @Benchmark
+    public CursorPage<TaskDTO> getAllTasks() {
+        return taskService.getAllTasks(null, defaultLimit());
+    }
+
+    @Benchmark
+    public long getTaskListVersion() {
+        return taskService.getTaskListVersion(userId);
+    }
+
+    @Benchmark
+    public TaskDTO updateTaskStatus() {
+        completed = !completed;
+        return taskService.updateTaskStatus(taskId, completed);
+    }
+
+    private static int defaultLimit() {
+        return Integer.parseInt(CursorPagination.DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,79 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.BenchmarkContext;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a page of a user's tasks as managed entities and copying
+ * them with {@link TaskService#convertToDTO} against the constructor-expression
+ * projection used by the read endpoints. Run with the {@code gc} profiler to
+ * see the allocation difference per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadPathBenchmark {
+
+    private static final int SEEDED_TASKS = 2_000;
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate readOnly;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read-path");
+        taskRepository = context.getBean(TaskRepository.class);
+        userId = BenchmarkContext.seedUserWithTasks(context, SEEDED_TASKS);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> entityPath() {
+        return readOnly.execute(status -> taskRepository
+                .findByUserIdAndIdGreaterThanAndDeletedFalseOrderByIdAsc(userId, 0L, Limit.of(pageSize))
+                .stream()
+                .map(TaskService::convertToDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TaskDTO> projectionPath() {
+        return readOnly.execute(status -> taskRepository
+                .findDtosByUserIdAndIdGreaterThan(userId, 0L, Limit.of(pageSize)));
+    }
+}
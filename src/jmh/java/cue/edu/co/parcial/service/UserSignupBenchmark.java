@@ -0,0 +1,79 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.BenchmarkContext;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Signup throughput with every email new: {@code on} rules the emails out
+ * through the {@link EmailRegistry} filter, {@code off} runs existsByEmail for
+ * each one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSignupBenchmark {
+
+    private static final int SEEDED_USERS = 10_000;
+
+    @Param({"on", "off"})
+    public String registry;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "on".equals(registry)
+                ? BenchmarkContext.start("signup-on")
+                : BenchmarkContext.start("signup-off", "--app.email-registry.enabled=false");
+        userService = context.getBean(UserService.class);
+        seedUsers();
+        context.getBean(EmailRegistry.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        long n = sequence.incrementAndGet();
+        return userService.createUser(new UserDTO(null, "Signup " + n, "signup." + n + "@example.com", null));
+    }
+
+    private void seedUsers() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                userRepository.saveAll(IntStream.range(0, SEEDED_USERS)
+                        .mapToObj(i -> new User("Seeded " + i, "seeded." + i + "@example.com"))
+                        .toList()));
+    }
+}
@@ -0,0 +1,41 @@
+package cue.edu.co.parcial.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-process read-through caches for single users/tasks and for the
+ * first page of each user's task list. The cache advice runs outside the
+ * transactional advice, and writes issued from inside a transaction are
+ * deferred until it commits.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String TASKS = "tasks";
+    public static final String USER_TASKS = "userTasks";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS, TASKS, USER_TASKS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,107 @@
+package cue.edu.co.parcial.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for {@link Coalesced} methods: while a call is in flight, calls
+ * with the same arguments wait for its result instead of running the method
+ * again. It runs inside the cache advice and outside the transactional advice,
+ * so only cache misses are coalesced and the shared load uses the first
+ * caller's transaction. A caller that waits longer than
+ * {@code app.coalescing.timeout} runs the method itself.
+ *
+ * <p>Loads are counted in {@value #METRIC}, tagged with the method and with an
+ * outcome of {@code executed}, {@code coalesced} or {@code timed_out}.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(CoalescingAspect.ORDER)
+public class CoalescingAspect {
+
+    /** Right after the cache advice, which runs at {@link Ordered#HIGHEST_PRECEDENCE}. */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    static final String METRIC = "app.coalescing.loads";
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+
+    public CoalescingAspect(MeterRegistry meterRegistry,
+                            @Value("${app.coalescing.timeout:5s}") Duration timeout) {
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+    }
+
+    @Around("@annotation(cue.edu.co.parcial.config.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+        if (existing == null) {
+            return execute(joinPoint, key, load);
+        }
+
+        count(method, "coalesced");
+        try {
+            return existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            count(method, "timed_out");
+            log.warn("Gave up waiting {} for {}{}, loading it again", timeout, method.getName(), key.args());
+            return joinPoint.proceed();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    private Object execute(ProceedingJoinPoint joinPoint, Key key, CompletableFuture<Object> load) throws Throwable {
+        count(key.method(), "executed");
+        try {
+            Object result = joinPoint.proceed();
+            load.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private void count(Method method, String outcome) {
+        Counter.builder(METRIC)
+                .tag("method", method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+}
@@ -0,0 +1,21 @@
+package cue.edu.co.parcial.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service classes. HTTP, repository, connection pool
+ * and Hibernate metrics come from Spring Boot's actuator auto-configuration.
+ * The timed advice runs inside the cache advice, so service timers measure
+ * calls that miss the cache.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package cue.edu.co.parcial.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+
+/**
+ * Outside production, counts the SQL statements issued while serving each
+ * request, reports them in the {@value #HEADER} response header and logs
+ * requests that exceed {@code app.query-count.warn-threshold}, so N+1 query
+ * regressions show up during development and in tests.
+ */
+@Configuration
+@Profile("!prod")
+public class QueryCountConfig {
+
+    public static final String HEADER = "X-Query-Count";
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(@Value("${app.query-count.warn-threshold:20}") long warnThreshold) {
+        return new QueryCountFilter(warnThreshold);
+    }
+
+    @Slf4j
+    static class QueryCountFilter extends OncePerRequestFilter {
+
+        private final long warnThreshold;
+
+        QueryCountFilter(long warnThreshold) {
+            this.warnThreshold = warnThreshold;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain chain) throws ServletException, IOException {
+            SqlStatementCounter.reset();
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses run their queries on another thread
+                return;
+            }
+            long count = SqlStatementCounter.count();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(count));
+            }
+            if (count > warnThreshold) {
+                log.warn("{} {} issued {} SQL statements", request.getMethod(), request.getRequestURI(), count);
+            } else {
+                log.debug("{} {} issued {} SQL statements", request.getMethod(), request.getRequestURI(), count);
+            }
+        }
+    }
+
+    /**
+     * Sets the header just before a body is written, while the response is
+     * still uncommitted.
+     */
+    @RestControllerAdvice
+    @Profile("!prod")
+    static class QueryCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                      Class<? extends HttpMessageConverter<?>> converterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            response.getHeaders().set(HEADER, Long.toString(SqlStatementCounter.count()));
+            return body;
+        }
+    }
+}
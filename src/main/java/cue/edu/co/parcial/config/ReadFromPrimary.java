@@ -0,0 +1,19 @@
+package cue.edu.co.parcial.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only method whose results are put in a cache. When a read
+ * replica is configured, the transaction it starts reads from the primary:
+ * a row the replica has not caught up with yet would otherwise be served
+ * from the cache until it expires. See {@link ReplicaRoutingDataSource}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
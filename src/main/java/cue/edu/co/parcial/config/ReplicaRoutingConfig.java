@@ -0,0 +1,180 @@
+package cue.edu.co.parcial.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Splits JDBC traffic between the primary database and a read replica once
+ * {@code app.datasource.replica.url} is set: each gets its own Hikari pool
+ * (named {@code primary} and {@code replica} in the {@code hikaricp_*}
+ * metrics) and {@link ReplicaRoutingDataSource} sends read-only transactions
+ * to the replica, except those of {@link ReadFromPrimary} methods. Migrations
+ * always run on the primary.
+ *
+ * <p>Not available in the {@code reactive} profile, which declares its own
+ * data source.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties) {
+        HikariDataSource dataSource = replicaDataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica.read-your-writes-window:5s}")
+                                 Duration readYourWritesWindow,
+                                 @Value("${app.datasource.replica.retry-interval:30s}")
+                                 Duration retryInterval) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, meterRegistry, readYourWritesWindow, retryInterval));
+    }
+
+    @Bean
+    public ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        return new ReadYourWritesFilter(readYourWritesWindow);
+    }
+
+    @Aspect
+    static class ReadFromPrimaryAspect {
+
+        @Around("@annotation(cue.edu.co.parcial.config.ReadFromPrimary)")
+        public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+            boolean previous = ReplicaRoutingDataSource.readFromPrimary(true);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                ReplicaRoutingDataSource.readFromPrimary(previous);
+            }
+        }
+    }
+
+    /**
+     * Keeps read-your-writes with the client rather than the worker thread: a
+     * request that writes answers with a {@value #COOKIE} cookie holding the
+     * time of the write, and requests that bring it back read from the primary
+     * until the window has passed, whichever thread or instance serves them.
+     */
+    static class ReadYourWritesFilter extends OncePerRequestFilter {
+
+        static final String COOKIE = "last-write";
+
+        private final Duration window;
+
+        ReadYourWritesFilter(Duration window) {
+            this.window = window;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain chain) throws ServletException, IOException {
+            AtomicBoolean written = new AtomicBoolean();
+            ReplicaRoutingDataSource.bindClient(lastWrite(request), writtenAt -> {
+                // Writes happen before the response is committed; one cookie per request is enough
+                if (written.compareAndSet(false, true)) {
+                    response.addCookie(cookie(writtenAt));
+                }
+            });
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReplicaRoutingDataSource.unbindClient();
+            }
+        }
+
+        /**
+         * The client's last write time, ignoring values from the future so a
+         * client cannot pin its reads to the primary for longer than a window.
+         */
+        private static Long lastWrite(HttpServletRequest request) {
+            Cookie cookie = WebUtils.getCookie(request, COOKIE);
+            if (cookie == null) {
+                return null;
+            }
+            try {
+                long lastWrite = Long.parseLong(cookie.getValue());
+                return lastWrite <= System.currentTimeMillis() ? lastWrite : null;
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        private Cookie cookie(long writtenAt) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(writtenAt));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            return cookie;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package cue.edu.co.parcial.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.function.LongConsumer;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else. It decides when a connection is requested,
+ * so it has to sit behind a {@code LazyConnectionDataSourceProxy}, which defers
+ * that until the transaction's first statement, when its read-only flag is
+ * known.
+ *
+ * <p>Reads go to the primary instead:
+ * <ul>
+ *   <li>when the client being served wrote within {@code readYourWritesWindow}.
+ *   Write times are wall-clock, so a client can carry its last one from
+ *   request to request (see {@link #bindClient}) whichever thread or instance
+ *   serves it. Threads with no client bound track their own writes;</li>
+ *   <li>inside {@link ReadFromPrimary} methods, whose results are cached;</li>
+ *   <li>when the replica refused a connection within {@code replicaRetryInterval}.</li>
+ * </ul>
+ *
+ * <p>Routing decisions are counted in {@value #METRIC}, tagged with the
+ * {@code target} pool and the {@code reason}: {@code write}, {@code read},
+ * {@code read_your_writes}, {@code cache_load}, {@code replica_down} or
+ * {@code fallback}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final String METRIC = "app.datasource.routes";
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+    private static final ThreadLocal<LongConsumer> WRITE_LISTENER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final MeterRegistry meterRegistry;
+    private final long readYourWritesWindowMillis;
+    private final long replicaRetryIntervalNanos;
+
+    private volatile long replicaRetryAt;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    MeterRegistry meterRegistry,
+                                    Duration readYourWritesWindow,
+                                    Duration replicaRetryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.meterRegistry = meterRegistry;
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+        this.replicaRetryIntervalNanos = replicaRetryInterval.toNanos();
+        this.replicaRetryAt = System.nanoTime();
+    }
+
+    /**
+     * Binds the client of the request being served to the current thread.
+     * {@code lastWrite} is when that client last wrote, in epoch millis, or
+     * null if unknown; {@code onWrite} is told the time of each write this
+     * request makes, so the client can send it with its next request.
+     */
+    public static void bindClient(Long lastWrite, LongConsumer onWrite) {
+        if (lastWrite == null) {
+            LAST_WRITE.remove();
+        } else {
+            LAST_WRITE.set(lastWrite);
+        }
+        WRITE_LISTENER.set(onWrite);
+    }
+
+    /**
+     * Forgets the client bound to the current thread and its writes, so a
+     * reused worker thread does not route the next client's reads.
+     */
+    public static void unbindClient() {
+        LAST_WRITE.remove();
+        WRITE_LISTENER.remove();
+    }
+
+    /**
+     * Sends the current thread's read-only transactions to the primary while
+     * set. Returns the previous setting, for the caller to restore. Only
+     * affects transactions that have not obtained a connection yet.
+     */
+    static boolean readFromPrimary(boolean enabled) {
+        boolean previous = Boolean.TRUE.equals(PRIMARY_READS.get());
+        if (enabled) {
+            PRIMARY_READS.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READS.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            long writtenAt = System.currentTimeMillis();
+            LAST_WRITE.set(writtenAt);
+            LongConsumer onWrite = WRITE_LISTENER.get();
+            if (onWrite != null) {
+                onWrite.accept(writtenAt);
+            }
+            return route(primary, "write");
+        }
+        Long lastWrite = LAST_WRITE.get();
+        if (lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesWindowMillis) {
+            return route(primary, "read_your_writes");
+        }
+        if (Boolean.TRUE.equals(PRIMARY_READS.get())) {
+            return route(primary, "cache_load");
+        }
+        long now = System.nanoTime();
+        if (now - replicaRetryAt < 0) {
+            return route(primary, "replica_down");
+        }
+        try {
+            return route(replica, "read");
+        } catch (SQLException ex) {
+            replicaRetryAt = now + replicaRetryIntervalNanos;
+            log.warn("Replica unavailable, reading from the primary for the next {} ms: {}",
+                    Duration.ofNanos(replicaRetryIntervalNanos).toMillis(), ex.getMessage());
+            return route(primary, "fallback");
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Neither Hikari pool hands out connections for other credentials either
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    private Connection route(DataSource target, String reason) throws SQLException {
+        Connection connection = target.getConnection();
+        meterRegistry.counter(METRIC, "target", target == replica ? "replica" : "primary", "reason", reason)
+                .increment();
+        return connection;
+    }
+}
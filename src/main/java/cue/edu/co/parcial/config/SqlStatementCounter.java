@@ -0,0 +1,38 @@
+package cue.edu.co.parcial.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread and
+ * remembers the last one. A JDBC batch counts once, and statements issued on
+ * raw connections (the bulk importer) are not seen.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<String> LAST_STATEMENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        LAST_STATEMENT.set(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+        LAST_STATEMENT.remove();
+    }
+
+    /**
+     * The last statement prepared on the current thread, exactly as Hibernate
+     * generated it, or null if there was none since the last reset.
+     */
+    public static String lastStatement() {
+        return LAST_STATEMENT.get();
+    }
+
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
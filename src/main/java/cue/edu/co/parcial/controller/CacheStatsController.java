@@ -0,0 +1,26 @@
+package cue.edu.co.parcial.controller;
+
+import cue.edu.co.parcial.dto.CacheStatsDTO;
+import cue.edu.co.parcial.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+}
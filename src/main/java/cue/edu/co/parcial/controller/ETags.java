@@ -0,0 +1,20 @@
+package cue.edu.co.parcial.controller;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds strong entity tags from the values that identify a representation.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(part -> Objects.toString(part, ""))
+                .collect(Collectors.joining(":", "\"", "\""));
+    }
+}
@@ -0,0 +1,52 @@
+package cue.edu.co.parcial.controller;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.service.ReactiveTaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@Profile("reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService reactiveTaskService;
+
+    @GetMapping("/{id}")
+    public Mono<TaskDTO> getTaskById(@PathVariable Long id) {
+        return reactiveTaskService.getTaskById(id);
+    }
+
+    @GetMapping(value = "/user/{userId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TaskDTO> getTasksByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after) {
+        return reactiveTaskService.getTasksByUserId(userId, after);
+    }
+
+    @PatchMapping("/{id}/status")
+    public Mono<TaskDTO> updateTaskStatus(
+            @PathVariable Long id,
+            @RequestBody Map<String, Boolean> statusUpdate) {
+        Boolean isCompleted = statusUpdate.get("isCompleted");
+        if (isCompleted == null) {
+            return Mono.error(new IllegalArgumentException("isCompleted field is required"));
+        }
+        return reactiveTaskService.updateTaskStatus(id, isCompleted);
+    }
+}
@@ -1,10 +1,27 @@
 package cue.edu.co.parcial.controller;
 
+import cue.edu.co.parcial.dto.BulkStatusUpdateDTO;
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.ImportReport;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskBatchResult;
+import cue.edu.co.parcial.dto.TaskChanges;
 import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.VersionedPage;
+import cue.edu.co.parcial.importer.TaskImportFormat;
+import cue.edu.co.parcial.importer.TaskImportService;
+import cue.edu.co.parcial.service.CursorPagination;
+import cue.edu.co.parcial.service.TaskEventHub;
+import cue.edu.co.parcial.service.TaskExportService;
 import cue.edu.co.parcial.service.TaskService;
+import cue.edu.co.parcial.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,18 +30,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskEventHub taskEventHub;
+    private final UserService userService;
 
     @PostMapping
     public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskDTO taskDTO) {
@@ -32,24 +62,123 @@ public class TaskController {
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> createTasks(@RequestBody List<TaskDTO> taskDTOs) {
+        List<TaskBatchResult> results = taskService.createTasks(taskDTOs);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping(value = "/import",
+            consumes = {TaskImportFormat.CSV_MEDIA_TYPE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importTasks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportReport report = taskImportService.importTasks(body, TaskImportFormat.fromContentType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id, WebRequest request) {
         TaskDTO task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        String eTag = ETags.of("task", task.getId(), task.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(task);
     }
 
+    /**
+     * {@code fields=id,title} narrows both the query and the response to the
+     * listed attributes; without it full tasks are returned.
+     */
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        List<TaskDTO> tasks = taskService.getAllTasks();
+    public ResponseEntity<CursorPage<?>> getAllTasks(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<?> tasks = fields == null
+                ? taskService.getAllTasks(after, limit)
+                : taskService.getTaskFields(TaskField.parse(fields), null, null, after, limit);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<LookupResult<TaskDTO>>> getTasksByIds(@RequestParam List<Long> ids) {
+        List<LookupResult<TaskDTO>> tasks = taskService.getTasksByIds(ids);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Same as {@code GET /api/tasks?ids=...} for id lists too long for a URL.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<LookupResult<TaskDTO>>> lookupTasks(@RequestBody List<Long> ids) {
+        List<LookupResult<TaskDTO>> tasks = taskService.getTasksByIds(ids);
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = taskExportService::exportTasks;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * The ETag is built from the list version loaded (or cached) together with
+     * the page, so a client never pairs a newer version with an older page.
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TaskDTO>> getTasksByUserId(@PathVariable Long userId) {
-        List<TaskDTO> tasks = taskService.getTasksByUserId(userId);
+    public ResponseEntity<CursorPage<?>> getTasksByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPagination.DEFAULT_LIMIT) int limit,
+            WebRequest request) {
+        Set<TaskField> sparseFields = fields == null ? null : TaskField.parse(fields);
+        VersionedPage<?> tasks;
+        if (sparseFields != null) {
+            tasks = taskService.getTaskFieldsByUserId(sparseFields, userId, completed, after, limit);
+        } else if (completed == null) {
+            tasks = taskService.getTasksByUserId(userId, after, limit);
+        } else {
+            tasks = taskService.getTasksByUserIdAndStatus(userId, completed, after, limit);
+        }
+        String eTag = ETags.of("user-tasks", userId, tasks.getVersion(), completed,
+                sparseFields == null ? null : TaskField.join(sparseFields), limit, after);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(tasks.getPage());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TaskDTO>> searchTasks(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<TaskDTO> tasks = taskService.searchTasks(userId, q, after, limit);
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<TaskChanges> getTaskChanges(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = CursorPagination.DEFAULT_LIMIT) int limit) {
+        TaskChanges changes = taskService.getTaskChanges(userId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping("/user/{userId}/events")
+    public SseEmitter streamTaskEvents(@PathVariable Long userId) {
+        userService.getUserById(userId);
+        return taskEventHub.subscribe(userId);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskDTO> updateTask(
             @PathVariable Long id,
@@ -70,6 +199,13 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<Map<String, Integer>> updateTasksStatus(
+            @Valid @RequestBody BulkStatusUpdateDTO statusUpdate) {
+        int updated = taskService.updateTasksStatus(statusUpdate);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
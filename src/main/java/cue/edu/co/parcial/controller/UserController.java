@@ -1,9 +1,14 @@
 package cue.edu.co.parcial.controller;
 
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
 import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.service.CursorPagination;
 import cue.edu.co.parcial.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,11 +18,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
@@ -31,14 +39,41 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id, WebRequest request) {
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        String eTag = ETags.of("user", user.getId(), user.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(user);
+    }
+
+    @GetMapping("/{id}/task-stats")
+    public ResponseEntity<TaskStatsDTO> getTaskStats(@PathVariable Long id) {
+        TaskStatsDTO stats = userService.getTaskStats(id);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<LookupResult<UserDTO>>> getUsersByIds(@RequestParam List<Long> ids) {
+        List<LookupResult<UserDTO>> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+
+    /**
+     * Same as {@code GET /api/users?ids=...} for id lists too long for a URL.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<LookupResult<UserDTO>>> lookupUsers(@RequestBody List<Long> ids) {
+        List<LookupResult<UserDTO>> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(users);
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserDTO>> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = CursorPagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<UserDTO> users = userService.getAllUsers(after, limit);
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,23 @@
+package cue.edu.co.parcial.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDTO {
+
+    private List<Long> ids;
+
+    private Long userId;
+
+    private Boolean currentStatus;
+
+    @NotNull(message = "isCompleted is required")
+    private Boolean isCompleted;
+}
@@ -0,0 +1,25 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private String writer;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    private List<String> rejections;
+
+    private long elapsedMillis;
+
+    private double rowsPerSecond;
+}
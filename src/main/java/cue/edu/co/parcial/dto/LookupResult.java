@@ -0,0 +1,30 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupResult<T> {
+
+    private Long id;
+
+    private Status status;
+
+    private T item;
+
+    public static <T> LookupResult<T> found(Long id, T item) {
+        return new LookupResult<>(id, Status.FOUND, item);
+    }
+
+    public static <T> LookupResult<T> notFound(Long id) {
+        return new LookupResult<>(id, Status.NOT_FOUND, null);
+    }
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,32 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResult {
+
+    private int index;
+
+    private Status status;
+
+    private TaskDTO task;
+
+    private String error;
+
+    public static TaskBatchResult created(int index, TaskDTO task) {
+        return new TaskBatchResult(index, Status.CREATED, task, null);
+    }
+
+    public static TaskBatchResult rejected(int index, String error) {
+        return new TaskBatchResult(index, Status.REJECTED, null, error);
+    }
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+}
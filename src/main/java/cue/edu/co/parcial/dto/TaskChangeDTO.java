@@ -0,0 +1,33 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A task as reported by the change feed. Tombstones have {@code deleted} set
+ * and should be removed from the client's copy of the list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeDTO {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private Boolean isCompleted;
+
+    private Long userId;
+
+    private Boolean deleted;
+
+    private Instant updatedAt;
+
+    private Long changeSeq;
+}
@@ -0,0 +1,24 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code nextCursor} is always set: clients store it
+ * and pass it as {@code since} on their next sync, and keep paging right away
+ * while {@code hasMore} is true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChanges {
+
+    private List<TaskChangeDTO> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+}
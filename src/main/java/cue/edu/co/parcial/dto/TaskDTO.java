@@ -1,7 +1,10 @@
 package cue.edu.co.parcial.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import cue.edu.co.parcial.model.Task;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,12 +17,18 @@ public class TaskDTO {
     private Long id;
 
     @NotBlank(message = "Title is required")
+    @Size(max = Task.TITLE_MAX_LENGTH, message = "Title must be at most {max} characters")
     private String title;
 
+    @Size(max = Task.DESCRIPTION_MAX_LENGTH, message = "Description must be at most {max} characters")
     private String description;
 
     private Boolean isCompleted;
 
     @NotNull(message = "User ID is required")
     private Long userId;
+
+    /** Entity version, surfaced to clients only through the ETag header. */
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,44 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed change to one of a user's tasks, as pushed to the user's event
+ * stream. {@code task} holds the new state; it is null for deletions and for
+ * bulk changes, after which clients should reload the list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent {
+
+    private Type type;
+
+    private Long userId;
+
+    private Long taskId;
+
+    private TaskDTO task;
+
+    public static TaskEvent of(Type type, TaskDTO task) {
+        return new TaskEvent(type, task.getUserId(), task.getId(), task);
+    }
+
+    public static TaskEvent deleted(Long userId, Long taskId) {
+        return new TaskEvent(Type.DELETED, userId, taskId, null);
+    }
+
+    public static TaskEvent bulkChanged(Long userId) {
+        return new TaskEvent(Type.BULK_CHANGED, userId, null, null);
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED,
+        BULK_CHANGED
+    }
+}
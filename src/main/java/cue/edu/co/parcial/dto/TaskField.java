@@ -0,0 +1,60 @@
+package cue.edu.co.parcial.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Task attributes that can be requested through the {@code fields} parameter
+ * of the task listings, named as they appear in {@link TaskDTO}'s JSON.
+ */
+public enum TaskField {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    IS_COMPLETED("isCompleted"),
+    USER_ID("userId");
+
+    private final String jsonName;
+
+    TaskField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code "id,title"}. The id is
+     * always included because the page cursor is built from it.
+     */
+    public static Set<TaskField> parse(String fields) {
+        Set<TaskField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown task field: " + trimmed
+                            + " (expected any of " + names() + ")")));
+        }
+        return parsed;
+    }
+
+    /**
+     * Inverse of {@link #parse}, e.g. for cache keys and entity tags.
+     */
+    public static String join(Set<TaskField> fields) {
+        return fields.stream().map(TaskField::getJsonName).collect(Collectors.joining(","));
+    }
+
+    private static String names() {
+        return Arrays.stream(values()).map(TaskField::getJsonName).collect(Collectors.joining(", "));
+    }
+}
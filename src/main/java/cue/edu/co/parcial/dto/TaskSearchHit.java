@@ -0,0 +1,18 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A task matching a search, with the rank it was ordered by.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchHit {
+
+    private TaskDTO task;
+
+    private double rank;
+}
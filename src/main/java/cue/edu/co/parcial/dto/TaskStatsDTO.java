@@ -0,0 +1,19 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsDTO {
+
+    private Long userId;
+
+    private Long total;
+
+    private Long completed;
+
+    private Long pending;
+}
@@ -1,5 +1,6 @@
 package cue.edu.co.parcial.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -19,4 +20,8 @@ public class UserDTO {
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     private String email;
+
+    /** Entity version, surfaced to clients only through the ETag header. */
+    @JsonIgnore
+    private Long version;
 }
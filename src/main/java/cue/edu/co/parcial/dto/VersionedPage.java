@@ -0,0 +1,20 @@
+package cue.edu.co.parcial.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page of a user's task list together with the list version (the user's
+ * change sequence) it was read at. Both are cached as one entry, so the ETag
+ * built from {@link #version} always describes {@link #page}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedPage<T> {
+
+    private long version;
+
+    private CursorPage<T> page;
+}
@@ -0,0 +1,49 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.model.Task;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+final class CopyTaskRowWriter implements TaskRowWriter {
+
+    private static final String COPY_SQL =
+            "COPY tasks (id, title, description, is_completed, user_id, version) FROM STDIN WITH (FORMAT csv)";
+
+    @Override
+    public String name() {
+        return "postgres-copy";
+    }
+
+    @Override
+    public String reserveIdsSql() {
+        return "SELECT nextval('" + Task.ID_SEQUENCE + "') FROM generate_series(1, ?)";
+    }
+
+    @Override
+    public void write(Connection connection, List<TaskRow> rows) throws SQLException, IOException {
+        StringBuilder csv = new StringBuilder(rows.size() * 64);
+        for (TaskRow row : rows) {
+            csv.append(row.id()).append(',');
+            appendQuoted(csv, row.title());
+            csv.append(',');
+            if (row.description() != null) {
+                appendQuoted(csv, row.description());
+            }
+            csv.append(',').append(row.completed())
+                    .append(',').append(row.userId())
+                    .append(",0\n");
+        }
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+    }
+
+    private static void appendQuoted(StringBuilder csv, String value) {
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
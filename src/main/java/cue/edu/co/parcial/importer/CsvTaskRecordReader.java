@@ -0,0 +1,117 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads one task per line from CSV with a header row naming the columns
+ * ({@code title}, {@code description}, {@code isCompleted}, {@code userId}).
+ * Fields may be quoted with {@code "}; quoted fields cannot span lines.
+ */
+final class CsvTaskRecordReader implements TaskRecordReader {
+
+    private final BufferedReader reader;
+    private final int titleColumn;
+    private final int descriptionColumn;
+    private final int completedColumn;
+    private final int userIdColumn;
+    private long lineNumber;
+
+    CsvTaskRecordReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import requires a header row");
+        }
+        lineNumber = 1;
+        List<String> columns = parseLine(header).stream()
+                .map(column -> column.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                .toList();
+        titleColumn = columns.indexOf("title");
+        descriptionColumn = columns.indexOf("description");
+        completedColumn = columns.indexOf("iscompleted");
+        userIdColumn = columns.indexOf("userid");
+        if (titleColumn < 0 || userIdColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain the title and userId columns");
+        }
+    }
+
+    @Override
+    public ParsedRecord next() throws IOException {
+        String line = reader.readLine();
+        lineNumber++;
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+            lineNumber++;
+        }
+        if (line == null) {
+            return null;
+        }
+        try {
+            List<String> fields = parseLine(line);
+            TaskDTO task = new TaskDTO();
+            task.setTitle(field(fields, titleColumn));
+            task.setDescription(field(fields, descriptionColumn));
+            task.setIsCompleted(parseCompleted(field(fields, completedColumn)));
+            String userId = field(fields, userIdColumn);
+            task.setUserId(userId == null ? null : Long.valueOf(userId.trim()));
+            return ParsedRecord.valid(lineNumber, task);
+        } catch (IllegalArgumentException ex) {
+            return ParsedRecord.invalid(lineNumber, ex.getMessage());
+        }
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    private static Boolean parseCompleted(String value) {
+        if (value == null) {
+            return false;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (!"true".equals(normalized) && !"false".equals(normalized)) {
+            throw new IllegalArgumentException("isCompleted must be true or false: '" + value + "'");
+        }
+        return Boolean.valueOf(normalized);
+    }
+}
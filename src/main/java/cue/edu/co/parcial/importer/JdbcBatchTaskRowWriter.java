@@ -0,0 +1,47 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.model.Task;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Portable fallback for databases without COPY support (H2 in tests).
+ */
+final class JdbcBatchTaskRowWriter implements TaskRowWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (id, title, description, is_completed, user_id, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    @Override
+    public String name() {
+        return "jdbc-batch";
+    }
+
+    @Override
+    public String reserveIdsSql() {
+        return "SELECT NEXT VALUE FOR " + Task.ID_SEQUENCE + " FROM SYSTEM_RANGE(1, ?)";
+    }
+
+    @Override
+    public void write(Connection connection, List<TaskRow> rows) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (TaskRow row : rows) {
+                insert.setLong(1, row.id());
+                insert.setString(2, row.title());
+                if (row.description() == null) {
+                    insert.setNull(3, Types.VARCHAR);
+                } else {
+                    insert.setString(3, row.description());
+                }
+                insert.setBoolean(4, row.completed());
+                insert.setLong(5, row.userId());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cue.edu.co.parcial.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.parcial.dto.TaskDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+final class NdjsonTaskRecordReader implements TaskRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonTaskRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ParsedRecord next() throws IOException {
+        String line = reader.readLine();
+        lineNumber++;
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+            lineNumber++;
+        }
+        if (line == null) {
+            return null;
+        }
+        try {
+            return ParsedRecord.valid(lineNumber, objectMapper.readValue(line, TaskDTO.class));
+        } catch (JsonProcessingException ex) {
+            return ParsedRecord.invalid(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+}
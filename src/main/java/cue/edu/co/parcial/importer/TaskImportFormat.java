@@ -0,0 +1,21 @@
+package cue.edu.co.parcial.importer;
+
+import org.springframework.http.MediaType;
+
+public enum TaskImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static TaskImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+            return CSV;
+        }
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
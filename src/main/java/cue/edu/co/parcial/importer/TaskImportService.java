@@ -0,0 +1,227 @@
+package cue.edu.co.parcial.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.dto.ImportReport;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskEvent;
+import cue.edu.co.parcial.importer.TaskRecordReader.ParsedRecord;
+import cue.edu.co.parcial.importer.TaskRowWriter.TaskRow;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk loads tasks from CSV or NDJSON straight into the {@code tasks} table,
+ * bypassing JPA. Rows are validated against the set of existing user ids loaded
+ * up front, written in chunks (PostgreSQL COPY, or JDBC batches elsewhere) and
+ * committed as a single transaction. Cached task lists of the affected users, and
+ * Hibernate's cached query results, are evicted and their event streams notified
+ * once the import has committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+
+    static final int CHUNK_SIZE = 5_000;
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final String RECORD_IMPORT_SQL =
+            "UPDATE users SET change_seq = change_seq + 1, task_count = task_count + ?,"
+                    + " completed_task_count = completed_task_count + ? WHERE id = ?";
+    private static final String STAMP_CHANGE_SEQ_SQL =
+            "UPDATE tasks SET change_seq = (SELECT u.change_seq FROM users u WHERE u.id = tasks.user_id)"
+                    + " WHERE user_id = ? AND change_seq = 0";
+
+    private final DataSource dataSource;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ImportReport importTasks(InputStream input, TaskImportFormat format) throws IOException {
+        long started = System.nanoTime();
+        Set<Long> userIds = userRepository.findAllIds();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        TaskRecordReader records = format == TaskImportFormat.CSV
+                ? new CsvTaskRecordReader(reader)
+                : new NdjsonTaskRecordReader(reader, objectMapper);
+
+        // Imported tasks per user: {total, completed}
+        Map<Long, long[]> importedCounts = new HashMap<>();
+        List<String> rejections = new ArrayList<>();
+        long rejected = 0;
+        long imported = 0;
+        String writerName;
+        try (Connection connection = dataSource.getConnection()) {
+            TaskRowWriter writer = TaskRowWriter.forConnection(connection);
+            writerName = writer.name();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<TaskDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+                for (ParsedRecord record = records.next(); record != null; record = records.next()) {
+                    String error = record.error() != null ? record.error() : validate(record.task(), userIds);
+                    if (error != null) {
+                        rejected++;
+                        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                            rejections.add("line " + record.lineNumber() + ": " + error);
+                        }
+                        continue;
+                    }
+                    chunk.add(record.task());
+                    long[] counts = importedCounts.computeIfAbsent(record.task().getUserId(), id -> new long[2]);
+                    counts[0]++;
+                    if (Boolean.TRUE.equals(record.task().getIsCompleted())) {
+                        counts[1]++;
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        imported += writeChunk(connection, writer, chunk);
+                        chunk.clear();
+                    }
+                }
+                imported += writeChunk(connection, writer, chunk);
+                stampChangeSeqs(connection, importedCounts);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Task import failed: " + ex.getMessage(), ex);
+        }
+        evictUserTasks(importedCounts.keySet());
+        importedCounts.keySet().forEach(userId -> eventPublisher.publishEvent(TaskEvent.bulkChanged(userId)));
+
+        long elapsedNanos = System.nanoTime() - started;
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return new ImportReport(writerName, imported, rejected, rejections,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), seconds > 0 ? imported / seconds : imported);
+    }
+
+    private void evictUserTasks(Set<Long> userIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_TASKS);
+        if (cache != null) {
+            userIds.forEach(cache::evict);
+        }
+        // Hibernate did not see these inserts: cached findByUserIdAndDeletedFalse
+        // results no longer list all of the users' tasks. Cached users stay, as
+        // only their task counters changed.
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    /**
+     * Rows are written with the column default change_seq of 0. Claims a new
+     * change sequence for every imported user, in id order, adds the imported
+     * tasks to the user's counters and stamps the new rows with the sequence so
+     * the change feed reports them.
+     */
+    private static void stampChangeSeqs(Connection connection, Map<Long, long[]> importedCounts)
+            throws SQLException {
+        if (importedCounts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement increment = connection.prepareStatement(RECORD_IMPORT_SQL);
+             PreparedStatement stamp = connection.prepareStatement(STAMP_CHANGE_SEQ_SQL)) {
+            for (Long userId : importedCounts.keySet().stream().sorted().toList()) {
+                long[] counts = importedCounts.get(userId);
+                increment.setLong(1, counts[0]);
+                increment.setLong(2, counts[1]);
+                increment.setLong(3, userId);
+                increment.addBatch();
+                stamp.setLong(1, userId);
+                stamp.addBatch();
+            }
+            increment.executeBatch();
+            stamp.executeBatch();
+        }
+    }
+
+    private static String validate(TaskDTO task, Set<Long> userIds) {
+        if (task.getTitle() == null || task.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        // An overlong value would fail the COPY or batch and roll back the whole import
+        if (task.getTitle().length() > Task.TITLE_MAX_LENGTH) {
+            return "Title must be at most " + Task.TITLE_MAX_LENGTH + " characters";
+        }
+        if (task.getDescription() != null && task.getDescription().length() > Task.DESCRIPTION_MAX_LENGTH) {
+            return "Description must be at most " + Task.DESCRIPTION_MAX_LENGTH + " characters";
+        }
+        if (task.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (!userIds.contains(task.getUserId())) {
+            return "User not found with id: '" + task.getUserId() + "'";
+        }
+        return null;
+    }
+
+    private static int writeChunk(Connection connection, TaskRowWriter writer, List<TaskDTO> chunk)
+            throws SQLException, IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        long[] ids = reserveIds(connection, writer, chunk.size());
+        List<TaskRow> rows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TaskDTO task = chunk.get(i);
+            rows.add(new TaskRow(ids[i], task.getTitle(), task.getDescription(),
+                    Boolean.TRUE.equals(task.getIsCompleted()), task.getUserId()));
+        }
+        writer.write(connection, rows);
+        return rows.size();
+    }
+
+    /**
+     * Reserves ids the same way Hibernate's pooled optimizer does: every sequence
+     * value {@code v} hands out the block {@code (v - allocationSize, v]}, so ids
+     * taken here never collide with ids generated by the application.
+     */
+    private static long[] reserveIds(Connection connection, TaskRowWriter writer, int count) throws SQLException {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + Task.ID_ALLOCATION_SIZE - 1) / Task.ID_ALLOCATION_SIZE;
+            try (PreparedStatement statement = connection.prepareStatement(writer.reserveIdsSql())) {
+                statement.setInt(1, blocks);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (filled < count && resultSet.next()) {
+                        long high = resultSet.getLong(1);
+                        long low = Math.max(1L, high - Task.ID_ALLOCATION_SIZE + 1);
+                        for (long id = low; id <= high && filled < count; id++) {
+                            ids[filled++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,24 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+
+import java.io.IOException;
+
+interface TaskRecordReader {
+
+    /**
+     * Returns the next record of the input, or {@code null} once it is exhausted.
+     */
+    ParsedRecord next() throws IOException;
+
+    record ParsedRecord(long lineNumber, TaskDTO task, String error) {
+
+        static ParsedRecord valid(long lineNumber, TaskDTO task) {
+            return new ParsedRecord(lineNumber, task, null);
+        }
+
+        static ParsedRecord invalid(long lineNumber, String error) {
+            return new ParsedRecord(lineNumber, null, error);
+        }
+    }
+}
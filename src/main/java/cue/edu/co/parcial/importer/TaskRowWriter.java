@@ -0,0 +1,31 @@
+package cue.edu.co.parcial.importer;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+interface TaskRowWriter {
+
+    String name();
+
+    /**
+     * Query returning one {@code tasks} sequence value per row for the number of
+     * rows passed as its only parameter. Every value reserves a whole pooled block.
+     */
+    String reserveIdsSql();
+
+    void write(Connection connection, List<TaskRow> rows) throws SQLException, IOException;
+
+    static TaskRowWriter forConnection(Connection connection) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new CopyTaskRowWriter();
+        }
+        return new JdbcBatchTaskRowWriter();
+    }
+
+    record TaskRow(long id, String title, String description, boolean completed, long userId) {
+    }
+}
@@ -1,6 +1,7 @@
 package cue.edu.co.parcial.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,28 +10,48 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    public static final String ID_SEQUENCE = "tasks_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final int TITLE_MAX_LENGTH = 255;
+    public static final int DESCRIPTION_MAX_LENGTH = 1000;
+    /** Second-level cache region; bulk updates of tasks evict all of it. */
+    public static final String CACHE_REGION = "task-entities";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Title is required")
-    @Column(nullable = false)
+    @Column(nullable = false, length = TITLE_MAX_LENGTH)
     private String title;
 
-    @Column(length = 1000)
+    @Column(length = DESCRIPTION_MAX_LENGTH)
     private String description;
 
     @Column(name = "is_completed", nullable = false)
@@ -41,6 +62,30 @@ public class Task {
     @JsonIgnore
     private User user;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Value of the owner's change sequence when this task last changed; see
+     * {@link UserTaskCounters#getChangeSeq()}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq = 0L;
+
+    @UpdateTimestamp
+    @JdbcTypeCode(SqlTypes.TIMESTAMP_WITH_TIMEZONE)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /** Deleted tasks are kept as tombstones so the change feed can report them. */
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private Boolean deleted = false;
+
     public Task(String title, String description, Boolean isCompleted, User user) {
         this.title = title;
         this.description = description;
@@ -0,0 +1,47 @@
+package cue.edu.co.parcial.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only view of the task counters kept on the {@code users} row. They are
+ * not part of {@link User}, so the native statements in {@code UserRepository}
+ * that move them leave the cached users alone: those statements declare
+ * {@link #QUERY_SPACE} instead of the {@code users} table, and no cache region
+ * is synchronized on it.
+ */
+@Entity
+@Immutable
+@Table(name = "users")
+@Getter
+@NoArgsConstructor
+public class UserTaskCounters {
+
+    public static final String QUERY_SPACE = "user_task_counters";
+
+    @Id
+    private Long id;
+
+    /**
+     * Counter bumped by every change to the user's tasks. It is only written by
+     * {@code UserRepository} update statements, whose row lock makes a user's
+     * changes commit in sequence order.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    /**
+     * Live (not deleted) tasks of the user and how many of them are completed,
+     * maintained by the same statements that bump {@link #changeSeq}.
+     */
+    @Column(name = "task_count", nullable = false)
+    private Long taskCount;
+
+    @Column(name = "completed_task_count", nullable = false)
+    private Long completedTaskCount;
+}
@@ -1,15 +1,137 @@
 package cue.edu.co.parcial.repository;
 
+import cue.edu.co.parcial.dto.TaskChangeDTO;
+import cue.edu.co.parcial.dto.TaskDTO;
 import cue.edu.co.parcial.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
-    List<Task> findByUserId(Long userId);
+    /**
+     * Constructor expression for read paths: rows are mapped straight to DTOs,
+     * with the owner taken from the user_id column, so no entities are hydrated
+     * or tracked by the persistence context. Callers filter out tombstones.
+     */
+    String SELECT_TASK_DTO = "SELECT new cue.edu.co.parcial.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.isCompleted, t.user.id, t.version) FROM Task t";
 
-    List<Task> findByUserIdAndIsCompleted(Long userId, Boolean isCompleted);
+    /**
+     * Keeps a mutation statement's task in step with its owner's change
+     * sequence, which the statement's caller has just incremented.
+     */
+    String OWNER_CHANGE_SEQ = "(SELECT c.changeSeq FROM UserTaskCounters c WHERE c.id = t.user.id)";
+
+    /**
+     * Served from the query cache until the tasks table changes; the tasks
+     * themselves then come from the second-level cache.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Task> findByUserIdAndDeletedFalse(Long userId);
+
+    List<Task> findByUserIdAndIsCompletedAndDeletedFalse(Long userId, Boolean isCompleted);
+
+    List<Task> findByUserIdAndIdGreaterThanAndDeletedFalseOrderByIdAsc(Long userId, Long afterId, Limit limit);
+
+    Optional<Task> findByIdAndDeletedFalse(Long id);
+
+    @Query(SELECT_TASK_DTO + " WHERE t.id = :id AND t.deleted = false")
+    Optional<TaskDTO> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_TASK_DTO + " WHERE t.id IN :ids AND t.deleted = false")
+    List<TaskDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_TASK_DTO + " WHERE t.id > :afterId AND t.deleted = false ORDER BY t.id")
+    List<TaskDTO> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + " WHERE t.user.id = :userId AND t.id > :afterId AND t.deleted = false ORDER BY t.id")
+    List<TaskDTO> findDtosByUserIdAndIdGreaterThan(@Param("userId") Long userId,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    @Query(SELECT_TASK_DTO + " WHERE t.user.id = :userId AND t.isCompleted = :isCompleted AND t.id > :afterId"
+            + " AND t.deleted = false ORDER BY t.id")
+    List<TaskDTO> findDtosByUserIdAndIsCompletedAndIdGreaterThan(@Param("userId") Long userId,
+                                                                 @Param("isCompleted") Boolean isCompleted,
+                                                                 @Param("afterId") Long afterId,
+                                                                 Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_TASK_DTO + " WHERE t.deleted = false ORDER BY t.id")
+    Stream<TaskDTO> streamAllDtos();
+
+    /**
+     * Tasks and tombstones of a user that changed after the given position, in
+     * feed order. The leading {@code changeSeq >= :changeSeq} bound keeps this a
+     * range scan on the (user_id, change_seq) index.
+     */
+    @Query("SELECT new cue.edu.co.parcial.dto.TaskChangeDTO(t.id, t.title, t.description, t.isCompleted,"
+            + " t.user.id, t.deleted, t.updatedAt, t.changeSeq) FROM Task t"
+            + " WHERE t.user.id = :userId AND t.changeSeq >= :changeSeq"
+            + " AND (t.changeSeq > :changeSeq OR t.id > :afterId)"
+            + " ORDER BY t.changeSeq, t.id")
+    List<TaskChangeDTO> findChangesSince(@Param("userId") Long userId,
+                                         @Param("changeSeq") Long changeSeq,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Query("SELECT t.user.id FROM Task t WHERE t.id = :id AND t.deleted = false")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT t.user.id FROM Task t WHERE t.id IN :ids AND t.deleted = false")
+    Set<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.isCompleted = :isCompleted, t.version = t.version + 1,"
+            + " t.changeSeq = " + OWNER_CHANGE_SEQ + ", t.updatedAt = :updatedAt"
+            + " WHERE t.id = :id AND t.deleted = false")
+    int updateStatusById(@Param("id") Long id,
+                         @Param("isCompleted") Boolean isCompleted,
+                         @Param("updatedAt") Instant updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.isCompleted = :isCompleted, t.version = t.version + 1,"
+            + " t.changeSeq = " + OWNER_CHANGE_SEQ + ", t.updatedAt = :updatedAt"
+            + " WHERE t.id IN :ids AND t.isCompleted <> :isCompleted AND t.deleted = false")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("isCompleted") Boolean isCompleted,
+                           @Param("updatedAt") Instant updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.isCompleted = :isCompleted, t.version = t.version + 1,"
+            + " t.changeSeq = " + OWNER_CHANGE_SEQ + ", t.updatedAt = :updatedAt"
+            + " WHERE t.user.id = :userId AND t.isCompleted = :currentStatus AND t.deleted = false")
+    int updateStatusByUserIdAndStatus(@Param("userId") Long userId,
+                                      @Param("currentStatus") Boolean currentStatus,
+                                      @Param("isCompleted") Boolean isCompleted,
+                                      @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Turns a task into a tombstone. The row keeps its owner and id so clients
+     * syncing through the change feed learn about the deletion.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.deleted = true, t.version = t.version + 1,"
+            + " t.changeSeq = " + OWNER_CHANGE_SEQ + ", t.updatedAt = :updatedAt"
+            + " WHERE t.id = :id AND t.deleted = false")
+    int softDeleteById(@Param("id") Long id, @Param("updatedAt") Instant updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,36 @@
+package cue.edu.co.parcial.repository;
+
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queries whose select list depends on the request, implemented in
+ * {@link TaskRepositoryImpl}.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset page of non-deleted tasks with only the given columns selected,
+     * optionally restricted to one owner and one status. Each row maps the
+     * fields' JSON names to their values, in {@link TaskField} order.
+     */
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Set<TaskField> fields,
+                                                        Long userId,
+                                                        Boolean isCompleted,
+                                                        long afterId,
+                                                        int limit);
+
+    /**
+     * Non-deleted tasks of a user matching the web-search style {@code query},
+     * ranked highest first with title matches above description matches, and
+     * after the given (rank, id) position. Uses the tsvector column and its GIN
+     * index on PostgreSQL. Other databases get a whole-word REGEXP_LIKE over the
+     * generated {@code search_text} column for every word, with {@code -word}
+     * excluding it, and a rank of 2 per word found in the title and 1 otherwise.
+     */
+    List<TaskSearchHit> search(Long userId, String query, double afterRank, long afterId, int limit);
+}
@@ -0,0 +1,171 @@
+package cue.edu.co.parcial.repository;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final String SEARCH_COLUMNS = "t.id, t.title, t.description, t.is_completed, t.user_id, t.version";
+
+    /**
+     * Ranks are compared as stored, so a cursor built from a hit's rank finds
+     * the same hit again; the id breaks ties.
+     */
+    private static final String RANKED_PAGE = ") ranked WHERE ranked.search_rank < :afterRank"
+            + " OR (ranked.search_rank = :afterRank AND ranked.id > :afterId)"
+            + " ORDER BY ranked.search_rank DESC, ranked.id LIMIT :limit";
+
+    private static final String POSTGRESQL_SEARCH = "SELECT * FROM (SELECT " + SEARCH_COLUMNS + ","
+            + " ts_rank(t.search_vector, q.query) AS search_rank"
+            + " FROM tasks t CROSS JOIN websearch_to_tsquery('simple', :query) AS q(query)"
+            + " WHERE t.user_id = :userId AND t.deleted = false AND t.search_vector @@ q.query"
+            + RANKED_PAGE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<TaskField> fields,
+                                                               Long userId,
+                                                               Boolean isCompleted,
+                                                               long afterId,
+                                                               int limit) {
+        // Only enum constants reach the query text; every value is a parameter
+        String select = fields.stream()
+                .map(field -> path(field) + " AS " + field.getJsonName())
+                .collect(Collectors.joining(", "));
+        StringBuilder jpql = new StringBuilder("SELECT ").append(select)
+                .append(" FROM Task t WHERE t.id > :afterId AND t.deleted = false");
+        if (userId != null) {
+            jpql.append(" AND t.user.id = :userId");
+        }
+        if (isCompleted != null) {
+            jpql.append(" AND t.isCompleted = :isCompleted");
+        }
+        jpql.append(" ORDER BY t.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (isCompleted != null) {
+            query.setParameter("isCompleted", isCompleted);
+        }
+        return query.getResultList().stream()
+                .map(row -> toMap(fields, row))
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskSearchHit> search(Long userId, String query, double afterRank, long afterId, int limit) {
+        Query search;
+        if (isPostgreSQL()) {
+            search = entityManager.createNativeQuery(POSTGRESQL_SEARCH)
+                    .setParameter("query", query);
+        } else {
+            List<String> included = new ArrayList<>();
+            List<String> excluded = new ArrayList<>();
+            for (String token : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+                List<String> words = token.startsWith("-") ? excluded : included;
+                Arrays.stream(token.split("[^\\p{L}\\p{N}]+"))
+                        .filter(word -> !word.isEmpty())
+                        .forEach(words::add);
+            }
+            if (included.isEmpty() && excluded.isEmpty()) {
+                return List.of();
+            }
+            search = entityManager.createNativeQuery(wordSearch(included.size(), excluded.size()));
+            for (int i = 0; i < included.size(); i++) {
+                search.setParameter("word" + i, wholeWord(included.get(i)));
+            }
+            for (int i = 0; i < excluded.size(); i++) {
+                search.setParameter("excluded" + i, wholeWord(excluded.get(i)));
+            }
+        }
+        List<Object[]> rows = search
+                .setParameter("userId", userId)
+                .setParameter("afterRank", afterRank)
+                .setParameter("afterId", afterId)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream().map(TaskRepositoryImpl::toSearchHit).toList();
+    }
+
+    /**
+     * Approximates websearch_to_tsquery('simple', ...) where there is no text
+     * search: the query is split into words on anything but letters and
+     * digits, every word must appear as a whole word in the title or
+     * description, and words of a token starting with '-' must not. Quoted
+     * phrases match their words in any order and "or" is an ordinary word.
+     * Each word counts 2 when it is in the title and 1 otherwise, mirroring
+     * the tsvector weights but not ts_rank's values.
+     */
+    private static String wordSearch(int included, int excluded) {
+        String matches = Stream.concat(
+                        IntStream.range(0, included)
+                                .mapToObj(i -> "REGEXP_LIKE(t.search_text, :word" + i + ")"),
+                        IntStream.range(0, excluded)
+                                .mapToObj(i -> "NOT REGEXP_LIKE(t.search_text, :excluded" + i + ")"))
+                .collect(Collectors.joining(" AND "));
+        String rank = included == 0 ? "0" : IntStream.range(0, included)
+                .mapToObj(i -> "CASE WHEN REGEXP_LIKE(LOWER(t.title), :word" + i + ") THEN 2 ELSE 1 END")
+                .collect(Collectors.joining(" + "));
+        return "SELECT * FROM (SELECT " + SEARCH_COLUMNS + ", CAST(" + rank + " AS DOUBLE PRECISION) AS search_rank"
+                + " FROM tasks t WHERE t.user_id = :userId AND t.deleted = false AND " + matches
+                + RANKED_PAGE;
+    }
+
+    private boolean isPostgreSQL() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private static String wholeWord(String word) {
+        return "\\b" + Pattern.quote(word) + "\\b";
+    }
+
+    private static TaskSearchHit toSearchHit(Object[] row) {
+        TaskDTO task = new TaskDTO(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                (Boolean) row[3], ((Number) row[4]).longValue(), ((Number) row[5]).longValue());
+        return new TaskSearchHit(task, ((Number) row[6]).doubleValue());
+    }
+
+    private static Map<String, Object> toMap(Set<TaskField> fields, Tuple row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach(field -> values.put(field.getJsonName(), row.get(field.getJsonName())));
+        return values;
+    }
+
+    private static String path(TaskField field) {
+        return switch (field) {
+            case ID -> "t.id";
+            case TITLE -> "t.title";
+            case DESCRIPTION -> "t.description";
+            case IS_COMPLETED -> "t.isCompleted";
+            case USER_ID -> "t.user.id";
+        };
+    }
+}
@@ -1,15 +1,149 @@
 package cue.edu.co.parcial.repository;
 
+import cue.edu.co.parcial.dto.TaskStatsDTO;
+import cue.edu.co.parcial.dto.UserDTO;
 import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.model.UserTaskCounters;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String SELECT_USER_DTO = "SELECT new cue.edu.co.parcial.dto.UserDTO(u.id, u.name, u.email, u.version) FROM User u";
+
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query(SELECT_USER_DTO + " WHERE u.id = :id")
+    Optional<UserDTO> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_USER_DTO + " WHERE u.id IN :ids")
+    List<UserDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_USER_DTO + " WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDTO> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT u.id FROM User u")
+    Set<Long> findAllIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Claims the next value of a user's change sequence and applies the task's
+     * effect on the user's counters. Only for writes whose effect is known
+     * before they run: inserts, and updates of an entity whose version is
+     * checked on flush. The row lock taken here is held until commit, so a
+     * user's task changes become visible in sequence order and the change feed
+     * never skips one. Returns 0 if the user does not exist.
+     * <p>
+     * This and the other counter statements are native and synchronized on
+     * {@link UserTaskCounters#QUERY_SPACE}: a JPQL update of {@code User} would
+     * evict every cached user on each task write.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UserTaskCounters.QUERY_SPACE))
+    @Query(nativeQuery = true, value = "UPDATE users SET change_seq = change_seq + 1,"
+            + " task_count = task_count + :taskDelta,"
+            + " completed_task_count = completed_task_count + :completedDelta"
+            + " WHERE id = :id")
+    int recordTaskChange(@Param("id") Long id,
+                         @Param("taskDelta") long taskDelta,
+                         @Param("completedDelta") long completedDelta);
+
+    /**
+     * Same as {@link #recordTaskChange} without touching the counters, for
+     * writes whose effect on them is only known once the task statement has
+     * run under this lock.
+     */
+    default int recordTaskChange(Long id) {
+        return recordTaskChange(id, 0L, 0L);
+    }
+
+    /**
+     * Same as {@link #recordTaskChange(Long)} for the owner of a task. Returns
+     * 0 if the task does not exist or is deleted.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UserTaskCounters.QUERY_SPACE))
+    @Query(nativeQuery = true, value = "UPDATE users SET change_seq = change_seq + 1"
+            + " WHERE id = (SELECT t.user_id FROM tasks t WHERE t.id = :taskId AND t.deleted = FALSE)")
+    int recordChangeOfTask(@Param("taskId") Long taskId);
+
+    /**
+     * Moves a user's counters after the task statements have run. The caller
+     * must already hold the user's row lock; the deltas come from what those
+     * statements changed, not from anything read before the lock was taken.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UserTaskCounters.QUERY_SPACE))
+    @Query(nativeQuery = true, value = "UPDATE users SET task_count = task_count + :taskDelta,"
+            + " completed_task_count = completed_task_count + :completedDelta"
+            + " WHERE id = :id")
+    int addToTaskCounts(@Param("id") Long id,
+                        @Param("taskDelta") long taskDelta,
+                        @Param("completedDelta") long completedDelta);
+
+    /**
+     * Moves the completed count of each user in {@code ids} by the number of
+     * its tasks among {@code taskIds} stamped with the user's current change
+     * sequence, i.e. the ones this transaction has just set to
+     * {@code isCompleted}. The caller must already hold the users' row locks.
+     */
+    default int recordStatusChangeOfTasks(Collection<Long> ids, Collection<Long> taskIds, boolean isCompleted) {
+        return recordStatusChangeOfTasks(ids, taskIds, isCompleted ? 1L : -1L);
+    }
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UserTaskCounters.QUERY_SPACE))
+    @Query(nativeQuery = true, value = "UPDATE users u"
+            + " SET completed_task_count = completed_task_count + :direction * (SELECT COUNT(*) FROM tasks t"
+            + " WHERE t.user_id = u.id AND t.id IN (:taskIds) AND t.change_seq = u.change_seq AND t.deleted = FALSE)"
+            + " WHERE u.id IN (:ids)")
+    int recordStatusChangeOfTasks(@Param("ids") Collection<Long> ids,
+                                  @Param("taskIds") Collection<Long> taskIds,
+                                  @Param("direction") long direction);
+
+    /**
+     * Takes a task that this transaction has just turned into a tombstone off
+     * its owner's counters. The caller must already hold the owner's row lock,
+     * so the task's status read here is the one it was deleted with.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UserTaskCounters.QUERY_SPACE))
+    @Query(nativeQuery = true, value = "UPDATE users SET task_count = task_count - 1,"
+            + " completed_task_count = completed_task_count - (SELECT COUNT(*) FROM tasks t"
+            + " WHERE t.id = :taskId AND t.is_completed = TRUE)"
+            + " WHERE id = :id")
+    int recordTaskDeletion(@Param("id") Long id, @Param("taskId") Long taskId);
+
+    @Query("SELECT c.changeSeq FROM UserTaskCounters c WHERE c.id = :id")
+    Long findChangeSeqById(@Param("id") Long id);
+
+    @Query("SELECT new cue.edu.co.parcial.dto.TaskStatsDTO(c.id, c.taskCount, c.completedTaskCount,"
+            + " c.taskCount - c.completedTaskCount) FROM UserTaskCounters c WHERE c.id = :id")
+    Optional<TaskStatsDTO> findTaskStatsById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
@@ -0,0 +1,78 @@
+package cue.edu.co.parcial.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cue.edu.co.parcial.dto.CacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    /** Reported for figures a cache does not track. */
+    static final long NOT_TRACKED = -1L;
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Application caches followed by Hibernate's second-level cache regions
+     * (entities, query results and table timestamps).
+     */
+    public List<CacheStatsDTO> getCacheStats() {
+        return Stream.concat(applicationCacheStats(), secondLevelCacheStats()).toList();
+    }
+
+    private Stream<CacheStatsDTO> applicationCacheStats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(CacheStatsService::unwrap)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(CacheStatsService::toDTO);
+    }
+
+    private Stream<CacheStatsDTO> secondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return Stream.empty();
+        }
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(CacheStatsService::toDTO);
+    }
+
+    private static Cache unwrap(Cache cache) {
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private static CacheStatsDTO toDTO(CaffeineCache cache) {
+        CacheStats stats = cache.getNativeCache().stats();
+        return new CacheStatsDTO(cache.getName(), cache.getNativeCache().estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private static CacheStatsDTO toDTO(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        long requests = hits + misses;
+        long size = region.getElementCountInMemory();
+        return new CacheStatsDTO(region.getRegionName(), size < 0 ? NOT_TRACKED : size,
+                hits, misses, requests == 0 ? 1.0 : (double) hits / requests, NOT_TRACKED);
+    }
+}
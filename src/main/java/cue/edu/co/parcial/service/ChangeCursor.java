@@ -0,0 +1,38 @@
+package cue.edu.co.parcial.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a user's change feed: the change sequence and id of the last row
+ * a client has seen. Several tasks share a sequence number when they change in
+ * one bulk update, so the id breaks ties. Opaque to clients, like the
+ * pagination cursors.
+ */
+public record ChangeCursor(long changeSeq, long taskId) {
+
+    public static final ChangeCursor START = new ChangeCursor(0L, 0L);
+
+    public static ChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long changeSeq = Long.parseLong(raw.substring(0, separator));
+            long taskId = Long.parseLong(raw.substring(separator + 1));
+            if (changeSeq < 0 || taskId < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new ChangeCursor(changeSeq, taskId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((changeSeq + ":" + taskId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,68 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers. Cursors are opaque to clients and wrap the id of
+ * the last row of the previous page, so every page is a seek on the primary key.
+ */
+public final class CursorPagination {
+
+    public static final String DEFAULT_LIMIT = "50";
+    public static final int MAX_LIMIT = 500;
+
+    private static final long FIRST_PAGE = 0L;
+
+    private CursorPagination() {
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long afterId = Long.parseLong(raw);
+            if (afterId < FIRST_PAGE) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return afterId;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static String encode(long afterId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(afterId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static boolean isDefaultFirstPage(String cursor, int limit) {
+        return (cursor == null || cursor.isBlank()) && Integer.toString(limit).equals(DEFAULT_LIMIT);
+    }
+
+    public static int clampLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra
+     * row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPage<>(items, encode(idOf.apply(items.get(limit - 1))));
+    }
+}
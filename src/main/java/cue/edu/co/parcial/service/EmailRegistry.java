@@ -0,0 +1,95 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this email taken?" for user writes without a query for new
+ * emails: a Bloom filter over users.email rules out emails that were never
+ * registered. Possible matches always fall through to existsByEmail; taken
+ * emails are not cached, since another instance may free one at any time.
+ *
+ * <p>The filter is built when the application starts and can be rebuilt at any
+ * time. It may miss emails written by another instance or while it is being
+ * rebuilt; the unique constraint on users.email still rejects those, and
+ * {@code GlobalExceptionHandler} maps the violation to the same 400.
+ */
+@Slf4j
+@Component
+public class EmailRegistry {
+
+    static final String METRIC = "app.email-registry.checks";
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    /** Null until the first build; every check then reaches the database. */
+    private volatile BloomFilter filter;
+
+    public EmailRegistry(UserRepository userRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.email-registry.enabled:true}") boolean enabled,
+                         @Value("${app.email-registry.expected-users:1000000}") long expectedUsers,
+                         @Value("${app.email-registry.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Loads every registered email into a new filter sized for at least twice
+     * the current number of users, then swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long users = userRepository.count();
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedUsers, users * 2), falsePositiveRate);
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(rebuilt::put);
+        }
+        filter = rebuilt;
+        log.info("Email filter built from {} users ({} bits)", users, rebuilt.bitCount());
+    }
+
+    public boolean isRegistered(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            count("filtered");
+            return false;
+        }
+        count("queried");
+        return userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Records an email that was just written. Adding it before the transaction
+     * commits is safe: a rollback only leaves a false positive behind.
+     */
+    public void registered(String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter(METRIC, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,64 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.LookupResult;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Resolves many ids in one call: ids found in the cache are served from it and
+ * the rest are loaded with IN queries of at most {@link #CHUNK_SIZE} parameters,
+ * well below the bind limits of the supported databases. Results follow the
+ * request order, with a not-found marker for every id that does not exist.
+ */
+final class MultiGet {
+
+    static final int MAX_IDS = 1000;
+    static final int CHUNK_SIZE = 500;
+
+    private MultiGet() {
+    }
+
+    static <T> List<LookupResult<T>> lookup(List<Long> ids, Cache cache, Class<T> type,
+                                            Function<Collection<Long>, List<T>> loader,
+                                            Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_IDS + " entries");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null entries");
+        }
+
+        Map<Long, T> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            T cached = cache != null ? cache.get(id, type) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size()));
+            for (T item : loader.apply(chunk)) {
+                Long id = idOf.apply(item);
+                found.put(id, item);
+                if (cache != null) {
+                    cache.put(id, item);
+                }
+            }
+        }
+
+        return ids.stream()
+                .map(id -> found.containsKey(id) ? LookupResult.found(id, found.get(id)) : LookupResult.<T>notFound(id))
+                .toList();
+    }
+}
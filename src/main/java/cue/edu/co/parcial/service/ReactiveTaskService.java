@@ -0,0 +1,134 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.exception.ResourceNotFoundException;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the {@link TaskService} read and status-update
+ * paths, issuing the same SQL against the same schema through R2DBC.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+
+    /** Rows requested from the driver at a time while streaming a listing. */
+    static final int FETCH_SIZE = 256;
+
+    private static final String SELECT_TASK =
+            "SELECT id, title, description, is_completed, user_id, version FROM tasks";
+    private static final String LOCK_OWNER =
+            "UPDATE users SET change_seq = change_seq + 1"
+                    + " WHERE id = (SELECT user_id FROM tasks WHERE id = :id AND deleted = false)";
+    private static final String UPDATE_STATUS =
+            "UPDATE tasks SET is_completed = :isCompleted, version = version + 1,"
+                    + " change_seq = (SELECT u.change_seq FROM users u WHERE u.id = tasks.user_id),"
+                    + " updated_at = CURRENT_TIMESTAMP WHERE id = :id AND deleted = false";
+    private static final String CHANGE_STATUS = UPDATE_STATUS + " AND is_completed <> :isCompleted";
+    private static final String ADD_TO_COMPLETED_COUNT =
+            "UPDATE users SET completed_task_count = completed_task_count + :delta WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator reactiveTransactionalOperator;
+    private final CacheManager cacheManager;
+
+    public Mono<TaskDTO> getTaskById(Long id) {
+        return databaseClient.sql(SELECT_TASK + " WHERE id = :id AND deleted = false")
+                .bind("id", id)
+                .map(ReactiveTaskService::toDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Task", "id", id)));
+    }
+
+    /**
+     * Streams a user's tasks in id order. Rows are pulled from the database as
+     * the subscriber requests them, so a slow consumer does not buffer the whole
+     * listing in memory.
+     */
+    public Flux<TaskDTO> getTasksByUserId(Long userId, String after) {
+        long afterId = CursorPagination.decode(after);
+        return databaseClient.sql(SELECT_TASK + " WHERE user_id = :userId AND id > :afterId AND deleted = false ORDER BY id")
+                .bind("userId", userId)
+                .bind("afterId", afterId)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveTaskService::toDTO)
+                .all()
+                .switchIfEmpty(userExists(userId).flatMapMany(exists -> exists
+                        ? Flux.empty()
+                        : Flux.error(new ResourceNotFoundException("User", "id", userId))));
+    }
+
+    /**
+     * Same statement order as {@link TaskService#updateTaskStatus}: owner lock,
+     * status change, then the counter delta from the rows that changed.
+     */
+    public Mono<TaskDTO> updateTaskStatus(Long id, Boolean isCompleted) {
+        Mono<TaskDTO> update = rowsUpdated(databaseClient.sql(LOCK_OWNER).bind("id", id))
+                .flatMap(locked -> locked == 0
+                        ? Mono.error(new ResourceNotFoundException("Task", "id", id))
+                        : rowsUpdated(databaseClient.sql(CHANGE_STATUS)
+                                .bind("isCompleted", isCompleted)
+                                .bind("id", id)))
+                .flatMap(changed -> changed > 0
+                        ? Mono.just(true)
+                        : rowsUpdated(databaseClient.sql(UPDATE_STATUS)
+                                .bind("isCompleted", isCompleted)
+                                .bind("id", id))
+                                .flatMap(rows -> rows == 0
+                                        ? Mono.error(new ResourceNotFoundException("Task", "id", id))
+                                        : Mono.just(false)))
+                .flatMap(changed -> getTaskById(id).flatMap(task -> changed
+                        ? rowsUpdated(databaseClient.sql(ADD_TO_COMPLETED_COUNT)
+                                .bind("delta", isCompleted ? 1L : -1L)
+                                .bind("id", task.getUserId()))
+                                .thenReturn(task)
+                        : Mono.just(task)));
+        // Evict only once the transaction has committed, as the JPA path does
+        return reactiveTransactionalOperator.transactional(update)
+                .doOnNext(this::evictCachedTask);
+    }
+
+    private static Mono<Long> rowsUpdated(DatabaseClient.GenericExecuteSpec statement) {
+        return statement.fetch().rowsUpdated();
+    }
+
+    private Mono<Boolean> userExists(Long userId) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE id = :id")
+                .bind("id", userId)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    private void evictCachedTask(TaskDTO task) {
+        Cache tasks = cacheManager.getCache(CacheConfig.TASKS);
+        if (tasks != null) {
+            tasks.evict(task.getId());
+        }
+        Cache userTasks = cacheManager.getCache(CacheConfig.USER_TASKS);
+        if (userTasks != null) {
+            userTasks.evict(task.getUserId());
+        }
+    }
+
+    private static TaskDTO toDTO(Readable row) {
+        return new TaskDTO(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("is_completed", Boolean.class),
+                row.get("user_id", Long.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,37 @@
+package cue.edu.co.parcial.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked search: the rank and id of the last hit a client has
+ * seen. Hits are ordered by rank, highest first, and then by id. Opaque to
+ * clients, like the pagination cursors.
+ */
+public record SearchCursor(double rank, long taskId) {
+
+    public static final SearchCursor START = new SearchCursor(Double.MAX_VALUE, 0L);
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double rank = Double.parseDouble(raw.substring(0, separator));
+            long taskId = Long.parseLong(raw.substring(separator + 1));
+            if (!Double.isFinite(rank) || rank < 0 || taskId < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new SearchCursor(rank, taskId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rank + ":" + taskId).getBytes(StandardCharsets.UTF_8));
+    }
+}
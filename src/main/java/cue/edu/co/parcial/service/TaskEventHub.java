@@ -0,0 +1,183 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.TaskEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process fan-out of committed {@link TaskEvent}s to the SSE streams opened
+ * by each task owner. Every subscriber gets a bounded buffer that is drained
+ * on a virtual thread only while it has something to send, so idle streams
+ * hold no thread. A subscriber whose buffer fills up is disconnected; the
+ * client is expected to reconnect and reload the list.
+ */
+@Slf4j
+@Component
+public class TaskEventHub {
+
+    static final String HEARTBEAT = "heartbeat";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Executor drainExecutor;
+    private final ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public TaskEventHub(
+            @Value("${app.events.buffer-size:256}") int bufferSize,
+            @Value("${app.events.timeout:30m}") Duration timeout,
+            @Value("${app.events.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this(bufferSize, timeout, heartbeatInterval, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TaskEventHub(int bufferSize, Duration timeout, Duration heartbeatInterval, Executor drainExecutor) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("app.events.buffer-size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.drainExecutor = drainExecutor;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-events-heartbeat").daemon().factory());
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        return emitter;
+    }
+
+    /**
+     * Delivered after the publishing transaction commits, or straight away when
+     * the event is published outside a transaction (e.g. by the importer).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.getUserId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (subscriber.offer(event)) {
+                subscriber.scheduleDrain();
+            } else {
+                log.warn("Disconnecting slow task event subscriber for user {} ({} events buffered)",
+                        event.getUserId(), bufferSize);
+                remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    int subscriberCount(Long userId) {
+        Set<Subscriber> set = subscribers.get(userId);
+        return set != null ? set.size() : 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        if (drainExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            subscriber.heartbeatDue = true;
+            subscriber.scheduleDrain();
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>(bufferSize);
+        }
+
+        boolean offer(TaskEvent event) {
+            return !closed && queue.offer(event);
+        }
+
+        void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                drainExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        emitter.send(SseEmitter.event().comment(HEARTBEAT));
+                    }
+                    TaskEvent event = queue.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event().name(event.getType().name()).data(event));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter already completed
+                remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Something may have been offered between the last poll and releasing the flag
+            if (!queue.isEmpty() || heartbeatDue) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cue.edu.co.parcial.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every task as one JSON document per line. Rows are pulled through a
+     * forward-only cursor as DTO projections, which the persistence context never
+     * tracks, so memory use does not grow with the size of the table.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<TaskDTO> tasks = taskRepository.streamAllDtos()) {
+            Iterator<TaskDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                written++;
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -1,104 +1,478 @@
 package cue.edu.co.parcial.service;
 
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.config.Coalesced;
+import cue.edu.co.parcial.config.ReadFromPrimary;
+import cue.edu.co.parcial.dto.BulkStatusUpdateDTO;
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskBatchResult;
+import cue.edu.co.parcial.dto.TaskChangeDTO;
+import cue.edu.co.parcial.dto.TaskChanges;
 import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskEvent;
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+import cue.edu.co.parcial.dto.VersionedPage;
 import cue.edu.co.parcial.exception.ResourceNotFoundException;
 import cue.edu.co.parcial.model.Task;
 import cue.edu.co.parcial.model.User;
 import cue.edu.co.parcial.repository.TaskRepository;
 import cue.edu.co.parcial.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "app.service", histogram = true)
 public class TaskService {
 
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_SEARCH_LENGTH = 200;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS, key = "#result.id")
     public TaskDTO createTask(TaskDTO taskDTO) {
-        User user = userRepository.findById(taskDTO.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", taskDTO.getUserId()));
+        // The owner is not loaded: nextChangeSeq fails with a 404 if it does not exist
+        User user = userRepository.getReferenceById(taskDTO.getUserId());
 
-        Task task = new Task();
-        task.setTitle(taskDTO.getTitle());
-        task.setDescription(taskDTO.getDescription());
-        task.setIsCompleted(taskDTO.getIsCompleted() != null ? taskDTO.getIsCompleted() : false);
-        task.setUser(user);
+        Task task = newTask(taskDTO, user);
+        task.setChangeSeq(nextChangeSeq(user.getId(), 1, task.getIsCompleted() ? 1 : 0));
+        TaskDTO savedTask = convertToDTO(taskRepository.save(task));
+        evict(CacheConfig.USER_TASKS, List.of(user.getId()));
+        eventPublisher.publishEvent(TaskEvent.of(TaskEvent.Type.CREATED, savedTask));
+        return savedTask;
+    }
+
+    /**
+     * Creates the valid items of a batch in one transaction. Referenced users are
+     * resolved with a single query and inserts are flushed as JDBC batches; items
+     * that fail validation are reported back instead of failing the whole batch.
+     */
+    @Transactional
+    public List<TaskBatchResult> createTasks(List<TaskDTO> taskDTOs) {
+        if (taskDTOs == null || taskDTOs.isEmpty()) {
+            throw new IllegalArgumentException("At least one task is required");
+        }
+        if (taskDTOs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " tasks");
+        }
+
+        Set<Long> userIds = taskDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(TaskDTO::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingUserIds = userIds.isEmpty() ? Set.of() : userRepository.findExistingIds(userIds);
 
-        Task savedTask = taskRepository.save(task);
-        return convertToDTO(savedTask);
+        TaskBatchResult[] results = new TaskBatchResult[taskDTOs.size()];
+        List<Task> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Map<Long, TaskCounts> counts = new HashMap<>();
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TaskDTO taskDTO = taskDTOs.get(i);
+            String error = validateBatchItem(taskDTO, existingUserIds);
+            if (error != null) {
+                results[i] = TaskBatchResult.rejected(i, error);
+                continue;
+            }
+            Task task = newTask(taskDTO, userRepository.getReferenceById(taskDTO.getUserId()));
+            accepted.add(task);
+            acceptedIndexes.add(i);
+            counts.merge(taskDTO.getUserId(), TaskCounts.of(task), TaskCounts::plus);
+        }
+
+        // Sequences are claimed in user id order so concurrent batches lock users in the same order
+        Map<Long, Long> changeSeqs = new HashMap<>();
+        counts.keySet().stream().sorted().forEach(userId -> changeSeqs.put(userId,
+                nextChangeSeq(userId, counts.get(userId).tasks(), counts.get(userId).completed())));
+        accepted.forEach(task -> task.setChangeSeq(changeSeqs.get(task.getUser().getId())));
+
+        List<Task> savedTasks = taskRepository.saveAll(accepted);
+        for (int i = 0; i < savedTasks.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            TaskDTO savedTask = convertToDTO(savedTasks.get(i));
+            results[index] = TaskBatchResult.created(index, savedTask);
+            eventPublisher.publishEvent(TaskEvent.of(TaskEvent.Type.CREATED, savedTask));
+        }
+        evict(CacheConfig.USER_TASKS, counts.keySet());
+        return Arrays.asList(results);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "#id")
+    @Coalesced
+    @ReadFromPrimary
     public TaskDTO getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        return taskRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
-        return convertToDTO(task);
     }
 
+    /**
+     * Resolves up to {@value MultiGet#MAX_IDS} tasks in request order, reusing
+     * cached tasks and loading the rest with chunked IN queries.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public List<LookupResult<TaskDTO>> getTasksByIds(List<Long> ids) {
+        return MultiGet.lookup(ids, cacheManager.getCache(CacheConfig.TASKS), TaskDTO.class,
+                taskRepository::findDtosByIdIn, TaskDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> getAllTasks(String after, int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<TaskDTO> rows = taskRepository
+                .findDtosByIdGreaterThan(CursorPagination.decode(after), Limit.of(pageSize + 1));
+        return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
+    }
+
+    /**
+     * Page of a user's tasks with the list version it was read at. The first
+     * page is cached as a whole, version included.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USER_TASKS, key = "#userId",
+            condition = "T(cue.edu.co.parcial.service.CursorPagination).isDefaultFirstPage(#after, #limit)")
+    @ReadFromPrimary
+    public VersionedPage<TaskDTO> getTasksByUserId(Long userId, String after, int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        long afterId = CursorPagination.decode(after);
+        return versioned(userId, () -> CursorPagination.toPage(taskRepository
+                .findDtosByUserIdAndIdGreaterThan(userId, afterId, Limit.of(pageSize + 1)), pageSize, TaskDTO::getId));
+    }
+
+    /**
+     * Page of a user's tasks that have the given status. Not cached: only the
+     * unfiltered first page is, so status changes keep a single entry to evict.
+     */
+    @Transactional(readOnly = true)
+    public VersionedPage<TaskDTO> getTasksByUserIdAndStatus(Long userId, Boolean isCompleted, String after,
+                                                            int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        long afterId = CursorPagination.decode(after);
+        return versioned(userId, () -> CursorPagination.toPage(taskRepository
+                .findDtosByUserIdAndIsCompletedAndIdGreaterThan(userId, isCompleted, afterId, Limit.of(pageSize + 1)),
+                pageSize, TaskDTO::getId));
+    }
+
+    /**
+     * Sparse variant of the task listings: only the requested fields are
+     * selected and returned. {@code userId} and {@code isCompleted} are optional
+     * filters; like the full listings, this is not cached.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getTaskFields(Set<TaskField> fields, Long userId, Boolean isCompleted,
+                                                         String after, int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        long afterId = CursorPagination.decode(after);
+        List<Map<String, Object>> rows = taskRepository
+                .findFieldsByIdGreaterThan(fields, userId, isCompleted, afterId, pageSize + 1);
+        if (userId != null && rows.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return CursorPagination.toPage(rows, pageSize, row -> (Long) row.get(TaskField.ID.getJsonName()));
+    }
+
+    /**
+     * {@link #getTaskFields} for one user, with the list version it was read at.
+     */
+    @Transactional(readOnly = true)
+    public VersionedPage<Map<String, Object>> getTaskFieldsByUserId(Set<TaskField> fields, Long userId,
+                                                                    Boolean isCompleted, String after, int limit) {
+        return versioned(userId, () -> getTaskFields(fields, userId, isCompleted, after, limit));
+    }
+
+    /**
+     * Full-text search over a user's task titles and descriptions. Hits come
+     * best match first and are paged with a (rank, id) cursor.
+     */
     @Transactional(readOnly = true)
-    public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<TaskDTO> searchTasks(Long userId, String query, String after, int limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (query.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("q may contain at most " + MAX_SEARCH_LENGTH + " characters");
+        }
+        int pageSize = CursorPagination.clampLimit(limit);
+        SearchCursor cursor = SearchCursor.decode(after);
+        List<TaskSearchHit> hits = taskRepository.search(
+                userId, query.trim(), cursor.rank(), cursor.taskId(), pageSize + 1);
+        if (hits.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        if (hits.size() <= pageSize) {
+            return new CursorPage<>(hits.stream().map(TaskSearchHit::getTask).toList(), null);
+        }
+        TaskSearchHit last = hits.get(pageSize - 1);
+        return new CursorPage<>(hits.subList(0, pageSize).stream().map(TaskSearchHit::getTask).toList(),
+                new SearchCursor(last.getRank(), last.getTask().getId()).encode());
+    }
+
+    /**
+     * Returns the tasks of a user that were created, updated or deleted after
+     * the {@code since} cursor, tombstones included, so an offline client can
+     * catch up without reloading the whole list.
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges getTaskChanges(Long userId, String since, int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        List<TaskChangeDTO> rows = taskRepository.findChangesSince(
+                userId, cursor.changeSeq(), cursor.taskId(), Limit.of(pageSize + 1));
+        if (rows.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskChangeDTO> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        if (!items.isEmpty()) {
+            TaskChangeDTO last = items.get(items.size() - 1);
+            cursor = new ChangeCursor(last.getChangeSeq(), last.getId());
+        }
+        return new TaskChanges(items, cursor.encode(), hasMore);
     }
 
+    /**
+     * Version of a user's task list: the user's change sequence, which every
+     * insert, update and delete of one of the user's tasks moves forward.
+     */
     @Transactional(readOnly = true)
-    public List<TaskDTO> getTasksByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    public long getTaskListVersion(Long userId) {
+        Long changeSeq = userRepository.findChangeSeqById(userId);
+        if (changeSeq == null) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        return taskRepository.findByUserId(userId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return changeSeq;
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS, key = "#id")
     public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
 
+        boolean wasCompleted = task.getIsCompleted();
+        boolean isCompleted = taskDTO.getIsCompleted() != null ? taskDTO.getIsCompleted() : wasCompleted;
+        task.setChangeSeq(nextChangeSeq(task.getUser().getId(), 0, Boolean.compare(isCompleted, wasCompleted)));
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
-        if (taskDTO.getIsCompleted() != null) {
-            task.setIsCompleted(taskDTO.getIsCompleted());
-        }
+        task.setIsCompleted(isCompleted);
 
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+        TaskDTO updatedTask = convertToDTO(taskRepository.saveAndFlush(task));
+        evict(CacheConfig.USER_TASKS, List.of(updatedTask.getUserId()));
+        eventPublisher.publishEvent(TaskEvent.of(TaskEvent.Type.UPDATED, updatedTask));
+        return updatedTask;
     }
 
+    /**
+     * Takes the owner's row lock before touching the task, then moves the
+     * completed count only if the task's status actually changed. Setting a
+     * task to the status it already has still bumps its version.
+     */
     @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS, key = "#id")
     public TaskDTO updateTaskStatus(Long id, Boolean isCompleted) {
-        Task task = taskRepository.findById(id)
+        if (userRepository.recordChangeOfTask(id) == 0) {
+            throw new ResourceNotFoundException("Task", "id", id);
+        }
+        Instant now = Instant.now();
+        int changed = taskRepository.updateStatusByIdIn(List.of(id), isCompleted, now);
+        if (changed == 0 && taskRepository.updateStatusById(id, isCompleted, now) == 0) {
+            throw new ResourceNotFoundException("Task", "id", id);
+        }
+        TaskDTO updatedTask = taskRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        if (changed > 0) {
+            userRepository.addToTaskCounts(updatedTask.getUserId(), 0, isCompleted ? 1 : -1);
+        }
+        evict(CacheConfig.USER_TASKS, List.of(updatedTask.getUserId()));
+        eventPublisher.publishEvent(TaskEvent.of(TaskEvent.Type.STATUS_CHANGED, updatedTask));
+        return updatedTask;
+    }
 
-        task.setIsCompleted(isCompleted);
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+    /**
+     * Sets the status of many tasks with a single UPDATE, selected either by an
+     * explicit id list or by owner (and current status). Returns the number of
+     * tasks whose status actually changed.
+     */
+    @Transactional
+    public int updateTasksStatus(BulkStatusUpdateDTO update) {
+        boolean byIds = update.getIds() != null;
+        if (byIds == (update.getUserId() != null)) {
+            throw new IllegalArgumentException("Exactly one of ids or userId is required");
+        }
+        if (byIds) {
+            if (update.getIds().isEmpty() || update.getIds().size() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("ids must contain between 1 and " + MAX_BATCH_SIZE + " entries");
+            }
+            Set<Long> userIds = taskRepository.findUserIdsByIdIn(update.getIds());
+            evict(CacheConfig.USER_TASKS, userIds);
+            evict(CacheConfig.TASKS, update.getIds());
+            if (userIds.isEmpty()) {
+                return 0;
+            }
+            // Owners are locked in id order so concurrent bulk updates cannot deadlock
+            userIds.stream().sorted().forEach(userRepository::recordTaskChange);
+            int updated = taskRepository.updateStatusByIdIn(update.getIds(), update.getIsCompleted(), Instant.now());
+            if (updated > 0) {
+                userRepository.recordStatusChangeOfTasks(userIds, update.getIds(), update.getIsCompleted());
+                userIds.forEach(userId -> eventPublisher.publishEvent(TaskEvent.bulkChanged(userId)));
+            }
+            return updated;
+        }
+        Boolean currentStatus = update.getCurrentStatus() != null
+                ? update.getCurrentStatus()
+                : !update.getIsCompleted();
+        if (userRepository.recordTaskChange(update.getUserId()) == 0) {
+            throw new ResourceNotFoundException("User", "id", update.getUserId());
+        }
+        int updated = taskRepository.updateStatusByUserIdAndStatus(
+                update.getUserId(), currentStatus, update.getIsCompleted(), Instant.now());
+        if (updated > 0) {
+            if (!currentStatus.equals(update.getIsCompleted())) {
+                userRepository.addToTaskCounts(update.getUserId(), 0, update.getIsCompleted() ? updated : -updated);
+            }
+            evict(CacheConfig.USER_TASKS, List.of(update.getUserId()));
+            clear(CacheConfig.TASKS);
+            eventPublisher.publishEvent(TaskEvent.bulkChanged(update.getUserId()));
+        }
+        return updated;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
+        Long userId = taskRepository.findUserIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        userRepository.recordTaskChange(userId);
+        if (taskRepository.softDeleteById(id, Instant.now()) == 0) {
             throw new ResourceNotFoundException("Task", "id", id);
         }
-        taskRepository.deleteById(id);
+        userRepository.recordTaskDeletion(userId, id);
+        evict(CacheConfig.USER_TASKS, List.of(userId));
+        eventPublisher.publishEvent(TaskEvent.deleted(userId, id));
+    }
+
+    /**
+     * Reads the list version before the page, in the same transaction. A write
+     * committing in between can then only make the page newer than its
+     * version, which costs a client one more full response but never a 304
+     * for a page it has not seen.
+     */
+    private <T> VersionedPage<T> versioned(Long userId, Supplier<CursorPage<T>> page) {
+        long version = getTaskListVersion(userId);
+        return new VersionedPage<>(version, page.get());
+    }
+
+    /**
+     * Claims the next change sequence of a user for a task about to be written,
+     * moving the user's task counters by the given deltas.
+     */
+    private long nextChangeSeq(Long userId, long taskDelta, long completedDelta) {
+        if (userRepository.recordTaskChange(userId, taskDelta, completedDelta) == 0) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return userRepository.findChangeSeqById(userId);
+    }
+
+    /**
+     * Cache writes made here are applied once the surrounding transaction commits.
+     */
+    private void evict(String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static String validateBatchItem(TaskDTO taskDTO, Set<Long> existingUserIds) {
+        if (taskDTO == null) {
+            return "Task is required";
+        }
+        if (taskDTO.getTitle() == null || taskDTO.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        // Checked here rather than left to the insert, which would fail the whole batch
+        if (taskDTO.getTitle().length() > Task.TITLE_MAX_LENGTH) {
+            return "Title must be at most " + Task.TITLE_MAX_LENGTH + " characters";
+        }
+        if (taskDTO.getDescription() != null && taskDTO.getDescription().length() > Task.DESCRIPTION_MAX_LENGTH) {
+            return "Description must be at most " + Task.DESCRIPTION_MAX_LENGTH + " characters";
+        }
+        if (taskDTO.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (!existingUserIds.contains(taskDTO.getUserId())) {
+            return new ResourceNotFoundException("User", "id", taskDTO.getUserId()).getMessage();
+        }
+        return null;
+    }
+
+    private static Task newTask(TaskDTO taskDTO, User user) {
+        Task task = new Task();
+        task.setTitle(taskDTO.getTitle());
+        task.setDescription(taskDTO.getDescription());
+        task.setIsCompleted(taskDTO.getIsCompleted() != null ? taskDTO.getIsCompleted() : false);
+        task.setUser(user);
+        return task;
+    }
+
+    private record TaskCounts(long tasks, long completed) {
+
+        static TaskCounts of(Task task) {
+            return new TaskCounts(1, task.getIsCompleted() ? 1 : 0);
+        }
+
+        TaskCounts plus(TaskCounts other) {
+            return new TaskCounts(tasks + other.tasks, completed + other.completed);
+        }
     }
 
-    private TaskDTO convertToDTO(Task task) {
+    static TaskDTO convertToDTO(Task task) {
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
         dto.setDescription(task.getDescription());
         dto.setIsCompleted(task.getIsCompleted());
         dto.setUserId(task.getUser().getId());
+        dto.setVersion(task.getVersion());
         return dto;
     }
 }
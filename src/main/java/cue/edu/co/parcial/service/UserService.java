@@ -1,25 +1,43 @@
 package cue.edu.co.parcial.service;
 
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.config.Coalesced;
+import cue.edu.co.parcial.config.ReadFromPrimary;
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
 import cue.edu.co.parcial.dto.UserDTO;
 import cue.edu.co.parcial.exception.ResourceNotFoundException;
 import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
 import cue.edu.co.parcial.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "app.service", histogram = true)
 public class UserService {
 
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final CacheManager cacheManager;
+    private final EmailRegistry emailRegistry;
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#result.id")
     public UserDTO createUser(UserDTO userDTO) {
-        if (userRepository.existsByEmail(userDTO.getEmail())) {
+        if (emailRegistry.isRegistered(userDTO.getEmail())) {
             throw new IllegalArgumentException("Email already exists: " + userDTO.getEmail());
         }
 
@@ -27,54 +45,95 @@ public class UserService {
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
 
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
+        emailRegistry.registered(savedUser.getEmail());
         return convertToDTO(savedUser);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
+    @Coalesced
+    @ReadFromPrimary
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
-        return convertToDTO(user);
     }
 
+    /**
+     * Resolves up to {@value MultiGet#MAX_IDS} users in request order, reusing
+     * cached users and loading the rest with chunked IN queries.
+     */
     @Transactional(readOnly = true)
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @ReadFromPrimary
+    public List<LookupResult<UserDTO>> getUsersByIds(List<Long> ids) {
+        return MultiGet.lookup(ids, cacheManager.getCache(CacheConfig.USERS), UserDTO.class,
+                userRepository::findDtosByIdIn, UserDTO::getId);
+    }
+
+    /**
+     * Reads the counters kept on the user row, so the cost does not grow with
+     * the number of tasks.
+     */
+    @Transactional(readOnly = true)
+    public TaskStatsDTO getTaskStats(Long id) {
+        return userRepository.findTaskStatsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getAllUsers(String after, int limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<UserDTO> rows = userRepository
+                .findDtosByIdGreaterThan(CursorPagination.decode(after), Limit.of(pageSize + 1));
+        return CursorPagination.toPage(rows, pageSize, UserDTO::getId);
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
-        if (!user.getEmail().equals(userDTO.getEmail())
-                && userRepository.existsByEmail(userDTO.getEmail())) {
+        String previousEmail = user.getEmail();
+        boolean emailChanged = !previousEmail.equals(userDTO.getEmail());
+        if (emailChanged && emailRegistry.isRegistered(userDTO.getEmail())) {
             throw new IllegalArgumentException("Email already exists: " + userDTO.getEmail());
         }
 
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userRepository.saveAndFlush(user);
+        if (emailChanged) {
+            // The old email stays in the filter as a false positive until the next rebuild
+            emailRegistry.registered(updatedUser.getEmail());
+        }
         return convertToDTO(updatedUser);
     }
 
+    /**
+     * Removes the user's tasks with one set-based DELETE instead of cascading
+     * through the loaded collection, then deletes the user row itself.
+     */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_TASKS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)
+    })
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        taskRepository.deleteByUserId(id);
+        if (userRepository.deleteUserById(id) == 0) {
             throw new ResourceNotFoundException("User", "id", id);
         }
-        userRepository.deleteById(id);
     }
 
-    private UserDTO convertToDTO(User user) {
+    static UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setName(user.getName());
         dto.setEmail(user.getEmail());
+        dto.setVersion(user.getVersion());
         return dto;
     }
 }
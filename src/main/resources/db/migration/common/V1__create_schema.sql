@@ -0,0 +1,52 @@
+-- Initial schema. Written to be re-runnable so that databases created by the
+-- former spring.jpa.hibernate.ddl-auto=update (baselined at version 0) pick up
+-- the columns and indexes they are missing; constraints only apply to fresh
+-- databases. Their IDENTITY ids are moved into the sequences by the vendor's
+-- V1_2 migration.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT       NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    version    BIGINT       DEFAULT 0 NOT NULL,
+    change_seq BIGINT       DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id           BIGINT                      NOT NULL,
+    title        VARCHAR(255)                NOT NULL,
+    description  VARCHAR(1000),
+    is_completed BOOLEAN                     DEFAULT FALSE NOT NULL,
+    user_id      BIGINT                      NOT NULL,
+    version      BIGINT                      DEFAULT 0 NOT NULL,
+    change_seq   BIGINT                      DEFAULT 0 NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    deleted      BOOLEAN                     DEFAULT FALSE NOT NULL,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Columns added since the tables were first created by ddl-auto=update
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS deleted BOOLEAN DEFAULT FALSE NOT NULL;
+
+-- Existing tasks become the first change of their owners, so they are stamped
+-- like any other change and the importer does not take them for its own rows
+UPDATE tasks SET change_seq = 1 WHERE change_seq = 0;
+UPDATE users SET change_seq = 1
+WHERE change_seq = 0 AND EXISTS (SELECT 1 FROM tasks t WHERE t.user_id = users.id);
+
+-- findByUserIdAndIsCompleted and the bulk status update by owner
+CREATE INDEX IF NOT EXISTS idx_tasks_user_completed ON tasks (user_id, is_completed);
+
+-- Change feed: GET /api/tasks/user/{userId}/changes
+CREATE INDEX IF NOT EXISTS idx_tasks_user_change_seq ON tasks (user_id, change_seq);
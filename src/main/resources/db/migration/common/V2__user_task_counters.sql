@@ -0,0 +1,16 @@
+-- Per-user task counters behind GET /api/users/{id}/task-stats, backfilled
+-- from the live tasks and kept up to date by the task mutations.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS task_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS completed_task_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE users SET
+    task_count = (SELECT COUNT(*) FROM tasks t WHERE t.user_id = users.id AND t.deleted = FALSE),
+    completed_task_count = (SELECT COUNT(*) FROM tasks t
+                            WHERE t.user_id = users.id AND t.deleted = FALSE AND t.is_completed = TRUE);
+
+-- GET /api/tasks/user/{userId}?completed=...: the id column lets the keyset
+-- page be read in index order, and the index still serves the bulk status
+-- update by owner.
+DROP INDEX IF EXISTS idx_tasks_user_completed;
+CREATE INDEX IF NOT EXISTS idx_tasks_user_completed_id ON tasks (user_id, is_completed, id);
@@ -0,0 +1,3 @@
+-- Per-user task list, paged by keyset on id. H2 has no partial indexes; see
+-- the PostgreSQL variant.
+CREATE INDEX IF NOT EXISTS idx_tasks_user_id_id ON tasks (user_id, id);
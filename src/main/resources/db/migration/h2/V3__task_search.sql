@@ -0,0 +1,5 @@
+-- GET /api/tasks/search. H2 has no text search types, so every query word is
+-- matched as a whole word with REGEXP_LIKE against the lowercased title and
+-- description instead; see TaskRepositoryImpl and the PostgreSQL variant.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_text VARCHAR(1256)
+    GENERATED ALWAYS AS (LOWER(title || ' ' || COALESCE(description, '')));
@@ -0,0 +1,3 @@
+-- Per-user task list, paged by keyset on id. The list never reads tombstones,
+-- so they are left out of the index.
+CREATE INDEX IF NOT EXISTS idx_tasks_user_id_id ON tasks (user_id, id) WHERE deleted = false;
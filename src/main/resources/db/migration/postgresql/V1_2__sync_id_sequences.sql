@@ -0,0 +1,9 @@
+-- Databases created by the former ddl-auto=update assigned ids with IDENTITY
+-- columns. Hibernate's pooled optimizer hands out the 50 ids up to each value
+-- it reads from a sequence, so the next value must be at least max(id) + 50.
+-- On a fresh database both tables are empty and the sequences keep starting at 1.
+
+SELECT setval('users_seq', (SELECT MAX(id) + 50 FROM users), false)
+WHERE EXISTS (SELECT 1 FROM users);
+SELECT setval('tasks_seq', (SELECT MAX(id) + 50 FROM tasks), false)
+WHERE EXISTS (SELECT 1 FROM tasks);
@@ -0,0 +1,10 @@
+-- GET /api/tasks/search: a weighted tsvector kept up to date by PostgreSQL
+-- itself (title ranks above description) and a GIN index to match it. The
+-- 'simple' configuration lowercases words without stemming, since task text
+-- is not in any single language.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', title), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search ON tasks USING GIN (search_vector);
@@ -1,28 +1,41 @@
 package cue.edu.co.parcial;
 
+import cue.edu.co.parcial.config.QueryCountConfig;
 import cue.edu.co.parcial.dto.TaskDTO;
 import cue.edu.co.parcial.dto.UserDTO;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * End-to-End test that validates the complete workflow:
@@ -122,11 +135,13 @@ class E2ETest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").exists());
 
-        // Step 5: List all tasks for the user
+        // Step 5: List all tasks for the user (list version + one projection query)
         mockMvc.perform(get("/api/tasks/user/" + userId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[*].title", containsInAnyOrder(
+                .andExpect(header().string(QueryCountConfig.HEADER, "2"))
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.items[*].title", containsInAnyOrder(
                         "Complete project documentation",
                         "Write unit tests",
                         "Deploy to production"
@@ -138,11 +153,13 @@ class E2ETest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(statusUpdate))
                 .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountConfig.HEADER, "3"))
                 .andExpect(jsonPath("$.isCompleted").value(true));
 
-        // Step 7: Verify the task was updated
+        // Step 7: Verify the task was updated (served from the cache)
         mockMvc.perform(get("/api/tasks/" + task1Id))
                 .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountConfig.HEADER, "0"))
                 .andExpect(jsonPath("$.isCompleted").value(true));
 
         // Step 8: Update the second task
@@ -165,22 +182,351 @@ class E2ETest {
         // Step 10: Verify only 2 tasks remain
         mockMvc.perform(get("/api/tasks/user/" + userId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(header().string(QueryCountConfig.HEADER, "2"))
+                .andExpect(jsonPath("$.items", hasSize(2)));
 
         // Step 11: Get all tasks globally
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(2))));
+                .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(2))));
 
         // Step 12: Delete the user (should cascade delete remaining tasks)
         mockMvc.perform(delete("/api/users/" + userId))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(QueryCountConfig.HEADER, "2"));
 
         // Step 13: Verify user is deleted
         mockMvc.perform(get("/api/users/" + userId))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void pagination_WalksUserTasksWithCursor() throws Exception {
+        Long userId = createUser("Paula Pager", "paula.pager@example.com");
+
+        for (int i = 1; i <= 3; i++) {
+            TaskDTO task = new TaskDTO();
+            task.setTitle("Paged task " + i);
+            task.setUserId(userId);
+            mockMvc.perform(post("/api/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(task)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/tasks/user/" + userId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title").value("Paged task 1"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/tasks/user/" + userId)
+                        .param("limit", "2")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Paged task 3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/users").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_StreamsTasksAsNdjson() throws Exception {
+        Long userId = createUser("Erin Export", "erin.export@example.com");
+
+        TaskDTO task = new TaskDTO();
+        task.setTitle("Exported task");
+        task.setUserId(userId);
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated());
+
+        MvcResult exportResult = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(exportResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"title\":\"Exported task\"")));
+
+        String[] lines = exportResult.getResponse().getContentAsString().split("\n");
+        for (String line : lines) {
+            objectMapper.readValue(line, TaskDTO.class);
+        }
+    }
+
+    @Test
+    void events_StreamsCommittedTaskChangesToTheOwner() throws Exception {
+        Long userId = createUser("Sam Stream", "sam.stream@example.com");
+
+        MvcResult events = mockMvc.perform(get("/api/tasks/user/{userId}/events", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        TaskDTO task = new TaskDTO();
+        task.setTitle("Streamed task");
+        task.setUserId(userId);
+        MvcResult taskResult = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long taskId = objectMapper.readValue(taskResult.getResponse().getContentAsString(), TaskDTO.class).getId();
+        mockMvc.perform(patch("/api/tasks/{id}/status", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isCompleted\": true}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", taskId))
+                .andExpect(status().isNoContent());
+
+        String stream = awaitContaining(events, "event:DELETED");
+        assertTrue(stream.indexOf("event:CREATED") < stream.indexOf("event:STATUS_CHANGED"));
+        assertTrue(stream.indexOf("event:STATUS_CHANGED") < stream.indexOf("event:DELETED"));
+        assertTrue(stream.contains("\"title\":\"Streamed task\""));
+        assertTrue(events.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        mockMvc.perform(get("/api/tasks/user/{userId}/events", userId + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batch_CreatesValidTasksAndRejectsInvalidOnes() throws Exception {
+        Long userId = createUser("Bea Batch", "bea.batch@example.com");
+
+        TaskDTO[] batch = {
+                new TaskDTO(null, "Batch task 1", null, false, userId, null),
+                new TaskDTO(null, "Batch task 2", "second", true, userId, null),
+                new TaskDTO(null, "No owner", null, false, 99999L, null)
+        };
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].task.id").exists())
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].task.isCompleted").value(true))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$[2].index").value(2));
+
+        mockMvc.perform(get("/api/tasks/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)));
+
+        mockMvc.perform(patch("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": " + userId + ", \"isCompleted\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+
+        mockMvc.perform(patch("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": " + userId + "}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statusFilterAndTaskStats_ReflectEachTaskChange() throws Exception {
+        Long userId = createUser("Cora Counter", "cora.counter@example.com");
+
+        TaskDTO[] batch = {
+                new TaskDTO(null, "Open 1", null, false, userId, null),
+                new TaskDTO(null, "Open 2", null, false, userId, null),
+                new TaskDTO(null, "Done", null, true, userId, null)
+        };
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/user/" + userId).param("completed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Done"));
+        MvcResult pending = mockMvc.perform(get("/api/tasks/user/" + userId).param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andReturn();
+        Long openTaskId = objectMapper.readTree(pending.getResponse().getContentAsString())
+                .at("/items/0/id").asLong();
+
+        mockMvc.perform(get("/api/users/" + userId + "/task-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.pending").value(2));
+
+        mockMvc.perform(patch("/api/tasks/" + openTaskId + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isCompleted\": true}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/" + openTaskId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/users/" + userId + "/task-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.pending").value(1));
+        mockMvc.perform(get("/api/users/99999/task-stats"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void sparseFieldsAndCbor_ShrinkTheTaskListing() throws Exception {
+        Long userId = createUser("Lena Lister", "lena.lister@example.com");
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskDTO(null, "Listed", "Not needed by the list screen", false, userId, null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tasks/user/" + userId).param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").exists())
+                .andExpect(jsonPath("$.items[0].title").value("Listed"))
+                .andExpect(jsonPath("$.items[0].description").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.items[0].userId").doesNotHaveJsonPath());
+
+        mockMvc.perform(get("/api/tasks").param("fields", "title,password"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult cborResult = mockMvc.perform(get("/api/tasks/user/" + userId)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        JsonNode page = new CBORMapper().readTree(cborResult.getResponse().getContentAsByteArray());
+        assertEquals("Listed", page.get("items").get(0).get("title").asText());
+    }
+
+    @Test
+    void search_FindsTheUsersTasksBestMatchFirst() throws Exception {
+        Long userId = createUser("Sam Search", "sam.search@example.com");
+
+        for (TaskDTO task : new TaskDTO[]{
+                new TaskDTO(null, "Call the plumber", "Kitchen sink", false, userId, null),
+                new TaskDTO(null, "Weekend", "Fix the kitchen shelf", false, userId, null),
+                new TaskDTO(null, "Kitchen paint", null, false, userId, null)}) {
+            mockMvc.perform(post("/api/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(task)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/tasks/search")
+                        .param("userId", userId.toString())
+                        .param("q", "kitchen")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title").value("Kitchen paint"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("userId", userId.toString())
+                        .param("q", "kitchen")
+                        .param("limit", "2")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks/search").param("userId", userId.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void multiGet_ResolvesTasksAndUsersInRequestOrder() throws Exception {
+        Long userId = createUser("Milo Multi", "milo.multi@example.com");
+
+        MvcResult taskResult = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskDTO(null, "Looked up", null, false, userId, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long taskId = objectMapper.readValue(taskResult.getResponse().getContentAsString(), TaskDTO.class).getId();
+
+        mockMvc.perform(get("/api/tasks").param("ids", "99999," + taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(99999))
+                .andExpect(jsonPath("$[0].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].status").value("FOUND"))
+                .andExpect(jsonPath("$[1].item.title").value("Looked up"));
+
+        mockMvc.perform(post("/api/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + userId + ", 99999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.email").value("milo.multi@example.com"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(post("/api/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void conditionalGet_ReturnsNotModifiedUntilTheResourceChanges() throws Exception {
+        Long userId = createUser("Pol Poller", "pol.poller@example.com");
+
+        TaskDTO task = new TaskDTO();
+        task.setTitle("Polled task");
+        task.setUserId(userId);
+        MvcResult taskResult = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long taskId = objectMapper.readValue(taskResult.getResponse().getContentAsString(), TaskDTO.class).getId();
+
+        String listETag = mockMvc.perform(get("/api/tasks/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String taskETag = mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String userETag = mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/tasks/user/" + userId).header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/tasks/" + taskId).header(HttpHeaders.IF_NONE_MATCH, taskETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/api/tasks/" + taskId + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isCompleted\": true}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/user/" + userId).header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].isCompleted").value(true));
+        mockMvc.perform(get("/api/tasks/" + taskId).header(HttpHeaders.IF_NONE_MATCH, taskETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isCompleted").value(true));
+    }
+
     @Test
     void testValidation_CreateUserWithInvalidEmail() throws Exception {
         UserDTO invalidUser = new UserDTO();
@@ -223,4 +569,28 @@ class E2ETest {
                         .content(objectMapper.writeValueAsString(task)))
                 .andExpect(status().isNotFound());
     }
+
+    private Long createUser(String name, String email) throws Exception {
+        UserDTO user = new UserDTO();
+        user.setName(name);
+        user.setEmail(email);
+
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserDTO.class).getId();
+    }
+
+    private static String awaitContaining(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Missing " + expected + " in " + content);
+        return content;
+    }
 }
@@ -0,0 +1,125 @@
+package cue.edu.co.parcial;
+
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
+import cue.edu.co.parcial.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveTaskApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = new User();
+        owner.setName("Rita Reactive");
+        owner.setEmail("rita.reactive@example.com");
+        owner = userRepository.save(owner);
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setIsCompleted(false);
+            task.setUser(owner);
+            taskRepository.save(task);
+        }
+    }
+
+    @Test
+    void getTasksByUserId_StreamsTasksAsNdjsonWithBackpressure() {
+        Flux<TaskDTO> tasks = webTestClient.get()
+                .uri("/api/tasks/user/{userId}", owner.getId())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TaskDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(tasks, 2)
+                .expectNextMatches(task -> task.getTitle().equals("Task 0"))
+                .expectNextMatches(task -> task.getTitle().equals("Task 1"))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void getTasksByUserId_UnknownUserReturnsNotFound() {
+        webTestClient.get()
+                .uri("/api/tasks/user/{userId}", owner.getId() + 1000)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void updateTaskStatus_PersistsAndIsVisibleToJpa() {
+        Long taskId = taskRepository.findAll().get(0).getId();
+
+        webTestClient.patch()
+                .uri("/api/tasks/{id}/status", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("isCompleted", true))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(taskId)
+                .jsonPath("$.isCompleted").isEqualTo(true);
+
+        webTestClient.get()
+                .uri("/api/tasks/{id}", taskId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.isCompleted").isEqualTo(true);
+        List<Task> completed = taskRepository.findAll().stream()
+                .filter(Task::getIsCompleted)
+                .toList();
+        assertEquals(1, completed.size());
+    }
+
+    @Test
+    void updateTaskStatus_UnknownTaskReturnsNotFound() {
+        webTestClient.patch()
+                .uri("/api/tasks/{id}/status", Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("isCompleted", true))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,81 @@
+package cue.edu.co.parcial;
+
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.config.ReplicaRoutingDataSource;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the application with the replica pool pointed at the same in-memory
+ * database as the primary, so both see the same data and the routing can be
+ * observed through the route counter.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password="
+})
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unbindClient();
+    }
+
+    @Test
+    void readOnlyServiceCalls_AreServedByTheReplica() {
+        UserDTO user = userService.createUser(
+                new UserDTO(null, "Rita Replica", "rita.replica." + System.nanoTime() + "@example.com", null));
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        double writes = routes("primary", "write");
+        double readsAfterWrite = routes("primary", "read_your_writes");
+
+        assertEquals("Rita Replica", userService.getUserById(user.getId()).getName());
+        assertEquals(readsAfterWrite + 1, routes("primary", "read_your_writes"));
+
+        ReplicaRoutingDataSource.unbindClient();
+        double reads = routes("replica", "read");
+
+        assertEquals(0L, userService.getTaskStats(user.getId()).getTotal());
+        assertEquals(reads + 1, routes("replica", "read"));
+        assertEquals(writes, routes("primary", "write"));
+    }
+
+    @Test
+    void cacheLoads_AreServedByThePrimary() {
+        UserDTO user = userService.createUser(
+                new UserDTO(null, "Cato Cache", "cato.cache." + System.nanoTime() + "@example.com", null));
+        ReplicaRoutingDataSource.unbindClient();
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        double cacheLoads = routes("primary", "cache_load");
+        double reads = routes("replica", "read");
+
+        assertEquals("Cato Cache", userService.getUserById(user.getId()).getName());
+        assertEquals(cacheLoads + 1, routes("primary", "cache_load"));
+        assertEquals(reads, routes("replica", "read"));
+    }
+
+    private double routes(String target, String reason) {
+        return meterRegistry.counter("app.datasource.routes", "target", target, "reason", reason).count();
+    }
+}
@@ -0,0 +1,136 @@
+package cue.edu.co.parcial.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingAspectTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final Loader target = new Loader();
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForTheSameId_ShareOneLoad() throws Exception {
+        Loader loader = proxy(Duration.ofSeconds(5));
+
+        List<Future<String>> results = IntStream.range(0, CALLERS)
+                .mapToObj(i -> executor.submit(() -> loader.load(7L)))
+                .toList();
+        awaitCount("coalesced", CALLERS - 1);
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("user-7", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.loads.get());
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    void callsForDifferentIdsOrAfterTheLoad_RunTheMethodAgain() throws Exception {
+        Loader loader = proxy(Duration.ofSeconds(5));
+        target.release.countDown();
+
+        assertEquals("user-1", loader.load(1L));
+        assertEquals("user-2", loader.load(2L));
+        assertEquals("user-1", loader.load(1L));
+
+        assertEquals(3, target.loads.get());
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void waitingCallerThatTimesOut_LoadsItself() throws Exception {
+        Loader loader = proxy(Duration.ofMillis(50));
+
+        Future<String> first = executor.submit(() -> loader.load(7L));
+        Future<String> second = executor.submit(() -> loader.load(7L));
+        awaitCount("timed_out", 1);
+        target.release.countDown();
+
+        assertEquals("user-7", first.get(5, TimeUnit.SECONDS));
+        assertEquals("user-7", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, target.loads.get());
+    }
+
+    @Test
+    void failedLoad_IsRethrownToEveryWaitingCaller() throws Exception {
+        Loader loader = proxy(Duration.ofSeconds(5));
+        target.failure = new IllegalStateException("database unavailable");
+
+        List<Future<String>> results = IntStream.range(0, CALLERS)
+                .mapToObj(i -> executor.submit(() -> loader.load(7L)))
+                .toList();
+        awaitCount("coalesced", CALLERS - 1);
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(target.failure, ex.getCause());
+        }
+        assertEquals(1, target.loads.get());
+    }
+
+    private Loader proxy(Duration timeout) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CoalescingAspect(meterRegistry, timeout));
+        return factory.getProxy();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.find(CoalescingAspect.METRIC).tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private void awaitCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + outcome + " loads");
+            Thread.sleep(5);
+        }
+    }
+
+    /** Stands in for a repository query that blocks until the test releases it. */
+    static class Loader {
+
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        @Coalesced
+        public String load(Long id) throws InterruptedException {
+            loads.incrementAndGet();
+            release.await();
+            if (failure != null) {
+                throw failure;
+            }
+            return "user-" + id;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package cue.edu.co.parcial.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, replica, meterRegistry,
+                Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.unbindClient();
+        ReplicaRoutingDataSource.readFromPrimary(false);
+    }
+
+    @Test
+    void readOnlyTransactions_UseTheReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+        assertEquals(1, count("replica", "read"));
+    }
+
+    @Test
+    void writes_UseThePrimary() throws SQLException {
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, count("primary", "write"));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void readsAfterAWriteOnTheSameThread_UseThePrimaryUntilUnbound() throws SQLException {
+        routing.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, count("primary", "read_your_writes"));
+
+        ReplicaRoutingDataSource.unbindClient();
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void readsOfAClientThatWroteWithinTheWindow_UseThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource.bindClient(System.currentTimeMillis() - 1_000, null);
+        assertSame(primaryConnection, routing.getConnection());
+
+        ReplicaRoutingDataSource.bindClient(System.currentTimeMillis() - 120_000, null);
+        assertSame(replicaConnection, routing.getConnection());
+        assertEquals(1, count("primary", "read_your_writes"));
+    }
+
+    @Test
+    void writes_AreReportedToTheBoundClient() throws SQLException {
+        List<Long> writes = new ArrayList<>();
+        ReplicaRoutingDataSource.bindClient(null, writes::add);
+
+        routing.getConnection();
+
+        assertEquals(1, writes.size());
+    }
+
+    @Test
+    void readsInsideReadFromPrimaryMethods_UseThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingDataSource.readFromPrimary(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, count("primary", "cache_load"));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void connectionsForOtherCredentials_AreNotSupported() {
+        assertThrows(SQLFeatureNotSupportedException.class, () -> routing.getConnection("other", "secret"));
+    }
+
+    @Test
+    void readYourWritesFilter_CarriesTheWriteToTheClientsNextRequest() throws Exception {
+        ReplicaRoutingConfig.ReadYourWritesFilter filter = new ReplicaRoutingConfig.ReadYourWritesFilter(
+                Duration.ofMinutes(1));
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/tasks"), writeResponse,
+                (request, response) -> connect(false));
+        Cookie lastWrite = writeResponse.getCookie(ReplicaRoutingConfig.ReadYourWritesFilter.COOKIE);
+        assertNotNull(lastWrite);
+
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/tasks/1");
+        read.setCookies(lastWrite);
+        filter.doFilter(read, new MockHttpServletResponse(), (request, response) -> connect(true));
+        assertEquals(1, count("primary", "read_your_writes"));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), new MockHttpServletResponse(),
+                (request, response) -> connect(true));
+        assertEquals(1, count("replica", "read"));
+    }
+
+    private void connect(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            routing.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void unavailableReplica_FallsBackToThePrimaryAndIsNotRetriedAtOnce() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("replica - timed out"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+
+        verify(replica, times(1)).getConnection();
+        assertEquals(1, count("primary", "fallback"));
+        assertEquals(1, count("primary", "replica_down"));
+    }
+
+    private double count(String target, String reason) {
+        return meterRegistry.counter(ReplicaRoutingDataSource.METRIC, "target", target, "reason", reason).count();
+    }
+}
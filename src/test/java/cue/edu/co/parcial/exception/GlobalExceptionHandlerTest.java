@@ -0,0 +1,54 @@
+package cue.edu.co.parcial.exception;
+
+import cue.edu.co.parcial.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class GlobalExceptionHandlerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void optimisticLockingFailure_IsAConflict() throws Exception {
+        mockMvc.perform(get("/stale"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void unexpectedException_IsAnInternalServerError() throws Exception {
+        mockMvc.perform(get("/broken"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.status").value(500));
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/stale")
+        String stale() {
+            throw new ObjectOptimisticLockingFailureException(Task.class, 1L);
+        }
+
+        @GetMapping("/broken")
+        String broken() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.importer.TaskRecordReader.ParsedRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTaskRecordReaderTest {
+
+    @Test
+    void parseLine_HandlesQuotesAndEscapedQuotes() {
+        List<String> fields = CsvTaskRecordReader.parseLine("\"Buy milk, eggs\",\"say \"\"hi\"\"\",true,7");
+
+        assertEquals(List.of("Buy milk, eggs", "say \"hi\"", "true", "7"), fields);
+    }
+
+    @Test
+    void parseLine_RejectsUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvTaskRecordReader.parseLine("\"open,1"));
+    }
+
+    @Test
+    void next_MapsColumnsByHeaderName() throws IOException {
+        CsvTaskRecordReader reader = reader("user_id,title,is_completed\n3,Write docs,TRUE\n\n4,Ship it,\n");
+
+        ParsedRecord first = reader.next();
+        ParsedRecord second = reader.next();
+
+        assertNull(first.error());
+        assertEquals(2, first.lineNumber());
+        assertEquals("Write docs", first.task().getTitle());
+        assertTrue(first.task().getIsCompleted());
+        assertEquals(3L, first.task().getUserId());
+        assertEquals(4, second.lineNumber());
+        assertFalse(second.task().getIsCompleted());
+        assertNull(second.task().getDescription());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ReportsMalformedRows() throws IOException {
+        CsvTaskRecordReader reader = reader("title,userId,isCompleted\nTask,abc,false\nTask,1,maybe\n");
+
+        assertNotNull(reader.next().error());
+        assertNotNull(reader.next().error());
+    }
+
+    @Test
+    void constructor_RequiresTitleAndUserIdColumns() {
+        assertThrows(IllegalArgumentException.class, () -> reader("title,description\n"));
+        assertThrows(IllegalArgumentException.class, () -> reader(""));
+    }
+
+    private static CsvTaskRecordReader reader(String csv) throws IOException {
+        return new CsvTaskRecordReader(new BufferedReader(new StringReader(csv)));
+    }
+}
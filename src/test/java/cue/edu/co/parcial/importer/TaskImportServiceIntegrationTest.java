@@ -0,0 +1,115 @@
+package cue.edu.co.parcial.importer;
+
+import cue.edu.co.parcial.dto.ImportReport;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
+import cue.edu.co.parcial.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskImportServiceIntegrationTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User("Ivan Import", "ivan.import." + System.nanoTime() + "@example.com"));
+    }
+
+    @Test
+    void importTasks_Csv_LoadsValidRowsAndReportsRejections() throws Exception {
+        String csv = "title,description,isCompleted,userId\n"
+                + "\"Imported, first\",\"with \"\"quotes\"\"\",true," + owner.getId() + "\n"
+                + "Imported second,,false," + owner.getId() + "\n"
+                + "Unknown owner,,false,999999\n"
+                + ",missing title,false," + owner.getId() + "\n";
+
+        ImportReport report = taskImportService.importTasks(stream(csv), TaskImportFormat.CSV);
+
+        assertEquals("jdbc-batch", report.getWriter());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(2, report.getRejections().size());
+        assertTrue(report.getRejections().get(0).startsWith("line 4:"));
+
+        List<Task> tasks = taskRepository.findByUserIdAndDeletedFalse(owner.getId());
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.stream().anyMatch(task -> "with \"quotes\"".equals(task.getDescription())));
+        assertTrue(tasks.stream().allMatch(task -> task.getChangeSeq() == 1L && !task.getDeleted()));
+        assertEquals(1L, userRepository.findChangeSeqById(owner.getId()));
+        assertEquals(new TaskStatsDTO(owner.getId(), 2L, 1L, 1L),
+                userRepository.findTaskStatsById(owner.getId()).orElseThrow());
+    }
+
+    @Test
+    void importTasks_RejectsOverlongRowsWithoutFailingTheImport() throws Exception {
+        String csv = "title,description,userId\n"
+                + "t".repeat(Task.TITLE_MAX_LENGTH + 1) + ",," + owner.getId() + "\n"
+                + "Fits,," + owner.getId() + "\n"
+                + "Long description," + "d".repeat(Task.DESCRIPTION_MAX_LENGTH + 1) + "," + owner.getId() + "\n";
+
+        ImportReport report = taskImportService.importTasks(stream(csv), TaskImportFormat.CSV);
+
+        assertEquals(1, report.getRowsImported());
+        assertEquals(List.of("line 2: Title must be at most 255 characters",
+                "line 4: Description must be at most 1000 characters"), report.getRejections());
+        assertEquals(1, taskRepository.findByUserIdAndDeletedFalse(owner.getId()).size());
+    }
+
+    @Test
+    void importTasks_Ndjson_SpansSeveralChunks() throws Exception {
+        int rows = TaskImportService.CHUNK_SIZE + 10;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"title\":\"Bulk ").append(i).append("\",\"userId\":").append(owner.getId()).append("}\n");
+        }
+        ndjson.append("{not json}\n");
+
+        ImportReport report = taskImportService.importTasks(stream(ndjson.toString()), TaskImportFormat.NDJSON);
+
+        assertEquals(rows, report.getRowsImported());
+        assertEquals(1, report.getRowsRejected());
+        assertEquals(rows, taskRepository.findByUserIdAndDeletedFalse(owner.getId()).size());
+    }
+
+    @Test
+    void importTasks_IdsDoNotCollideWithApplicationGeneratedIds() throws Exception {
+        Task before = taskRepository.save(new Task("Before import", null, false, owner));
+        taskImportService.importTasks(stream("title,userId\nImported," + owner.getId() + "\n"), TaskImportFormat.CSV);
+        Task after = taskRepository.save(new Task("After import", null, false, owner));
+
+        Set<Long> ids = new HashSet<>();
+        taskRepository.findByUserIdAndDeletedFalse(owner.getId()).forEach(task -> assertTrue(ids.add(task.getId())));
+        assertEquals(3, ids.size());
+        assertNotEquals(before.getId(), after.getId());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package cue.edu.co.parcial.repository;
+
+import cue.edu.co.parcial.support.PostgresContainerTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations over a database laid out the way the former
+ * {@code spring.jpa.hibernate.ddl-auto=update} left it: IDENTITY ids and none of
+ * the columns added since. Each test gets its own database in the shared
+ * container.
+ */
+class LegacySchemaMigrationIntegrationTest extends PostgresContainerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        String database = "legacy_" + System.nanoTime();
+        new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword())).execute("CREATE DATABASE " + database);
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(),
+                "/" + database), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT GENERATED BY DEFAULT AS IDENTITY,"
+                + " email VARCHAR(255) NOT NULL UNIQUE, name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT GENERATED BY DEFAULT AS IDENTITY,"
+                + " description VARCHAR(1000), is_completed BOOLEAN NOT NULL, title VARCHAR(255) NOT NULL,"
+                + " user_id BIGINT NOT NULL REFERENCES users, PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO users (email, name) VALUES ('ana@example.com', 'Ana'),"
+                + " ('ben@example.com', 'Ben'), ('cy@example.com', 'Cy')");
+        jdbcTemplate.update("INSERT INTO tasks (title, is_completed, user_id) VALUES ('One', true, 1),"
+                + " ('Two', false, 1), ('Three', false, 2)");
+    }
+
+    @Test
+    void migrate_AddsTheNewColumnsAndBackfillsThem() {
+        migrate();
+
+        Map<String, Object> ana = jdbcTemplate.queryForMap(
+                "SELECT version, change_seq, task_count, completed_task_count FROM users WHERE id = 1");
+        assertEquals(Map.of("version", 0L, "change_seq", 1L, "task_count", 2L, "completed_task_count", 1L), ana);
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT change_seq FROM users WHERE id = 3", Long.class));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks"
+                + " WHERE version = 0 AND change_seq = 1 AND deleted = false AND updated_at IS NOT NULL", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks"
+                + " WHERE search_vector @@ plainto_tsquery('simple', title)", Integer.class));
+    }
+
+    @Test
+    void migrate_MovesTheSequencesPastTheIdentityIds() {
+        migrate();
+
+        // The pooled optimizer hands out the 50 ids up to the value it reads: 4 to 53
+        assertEquals(53L, jdbcTemplate.queryForObject("SELECT nextval('users_seq')", Long.class));
+        assertEquals(53L, jdbcTemplate.queryForObject("SELECT nextval('tasks_seq')", Long.class));
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
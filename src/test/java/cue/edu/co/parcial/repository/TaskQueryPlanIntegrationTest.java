@@ -0,0 +1,98 @@
+package cue.edu.co.parcial.repository;
+
+import cue.edu.co.parcial.config.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the per-user task queries through their repository methods, captures
+ * the SQL Hibernate generated for them and runs EXPLAIN on it against the
+ * schema created by the Flyway migrations. Fails if any of them falls back to
+ * a scan of the tasks table.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "cue.edu.co.parcial.config.SqlStatementCounter")
+@ActiveProfiles("test")
+class TaskQueryPlanIntegrationTest {
+
+    private static final int USERS = 20;
+    private static final int TASKS_PER_USER = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> tasks = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "Plan User " + userId, "plan." + userId + "@example.com"});
+            for (int i = 0; i < TASKS_PER_USER; i++) {
+                long taskId = (userId - 1) * TASKS_PER_USER + i + 1;
+                tasks.add(new Object[]{taskId, "Task " + taskId, i % 2 == 0, userId, (long) i, i % 10 == 0});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, is_completed, user_id, change_seq, deleted)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", tasks);
+        jdbcTemplate.execute("ANALYZE");
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void taskListPage_UsesTheUserIdIndex() {
+        taskRepository.findDtosByUserIdAndIdGreaterThan(7L, 310L, Limit.of(51));
+
+        assertIndexScan("IDX_TASKS_USER_ID_ID", 7L, 310L, 51);
+    }
+
+    @Test
+    void taskListPageByStatus_UsesTheUserStatusIdIndex() {
+        taskRepository.findDtosByUserIdAndIsCompletedAndIdGreaterThan(7L, true, 310L, Limit.of(51));
+
+        assertIndexScan("IDX_TASKS_USER_COMPLETED_ID", 7L, true, 310L, 51);
+    }
+
+    @Test
+    void changeFeed_UsesTheUserChangeSeqIndex() {
+        taskRepository.findChangesSince(7L, 40L, 340L, Limit.of(51));
+
+        assertIndexScan("IDX_TASKS_USER_CHANGE_SEQ", 7L, 40L, 40L, 340L, 51);
+    }
+
+    @Test
+    void bulkStatusUpdateByOwner_UsesTheUserStatusIndex() {
+        taskRepository.updateStatusByUserIdAndStatus(7L, false, true, Instant.now());
+
+        assertIndexScan("IDX_TASKS_USER_COMPLETED", true, OffsetDateTime.now(), 7L, false);
+    }
+
+    /**
+     * EXPLAINs the statement the repository call just issued, binding the
+     * call's arguments in the order their placeholders appear in the SQL.
+     */
+    private void assertIndexScan(String expectedIndex, Object... parameters) {
+        String sql = SqlStatementCounter.lastStatement();
+        assertNotNull(sql, "No statement was captured");
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertFalse(plan.contains("TASKS.tableScan"), () -> "Full scan of tasks:\n" + plan);
+        assertTrue(plan.contains(expectedIndex), () -> "Expected " + expectedIndex + " in:\n" + plan);
+    }
+}
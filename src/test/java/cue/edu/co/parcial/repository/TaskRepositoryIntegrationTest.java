@@ -1,14 +1,24 @@
 package cue.edu.co.parcial.repository;
 
+import cue.edu.co.parcial.dto.TaskChangeDTO;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
 import cue.edu.co.parcial.model.Task;
 import cue.edu.co.parcial.model.User;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -70,14 +80,14 @@ class TaskRepositoryIntegrationTest {
         taskRepository.save(testTask);
         taskRepository.save(task2);
 
-        List<Task> tasks = taskRepository.findByUserId(testUser.getId());
+        List<Task> tasks = taskRepository.findByUserIdAndDeletedFalse(testUser.getId());
 
         assertEquals(2, tasks.size());
     }
 
     @Test
     void findByUserId_ReturnsEmptyList() {
-        List<Task> tasks = taskRepository.findByUserId(999L);
+        List<Task> tasks = taskRepository.findByUserIdAndDeletedFalse(999L);
 
         assertTrue(tasks.isEmpty());
     }
@@ -93,8 +103,8 @@ class TaskRepositoryIntegrationTest {
         taskRepository.save(testTask); // isCompleted = false
         taskRepository.save(completedTask); // isCompleted = true
 
-        List<Task> incompleteTasks = taskRepository.findByUserIdAndIsCompleted(testUser.getId(), false);
-        List<Task> completedTasks = taskRepository.findByUserIdAndIsCompleted(testUser.getId(), true);
+        List<Task> incompleteTasks = taskRepository.findByUserIdAndIsCompletedAndDeletedFalse(testUser.getId(), false);
+        List<Task> completedTasks = taskRepository.findByUserIdAndIsCompletedAndDeletedFalse(testUser.getId(), true);
 
         assertEquals(1, incompleteTasks.size());
         assertFalse(incompleteTasks.get(0).getIsCompleted());
@@ -103,6 +113,81 @@ class TaskRepositoryIntegrationTest {
         assertTrue(completedTasks.get(0).getIsCompleted());
     }
 
+    @Test
+    void entityFinders_SkipTombstones() {
+        Task kept = taskRepository.save(new Task("Kept", null, true, testUser));
+        Task deleted = taskRepository.save(new Task("Deleted", null, true, testUser));
+        entityManager.flush();
+        taskRepository.softDeleteById(deleted.getId(), Instant.now());
+
+        List<Long> expected = List.of(kept.getId());
+        assertEquals(expected, taskRepository.findByUserIdAndDeletedFalse(testUser.getId()).stream()
+                .map(Task::getId).toList());
+        assertEquals(expected, taskRepository.findByUserIdAndIsCompletedAndDeletedFalse(testUser.getId(), true)
+                .stream().map(Task::getId).toList());
+        assertEquals(expected, taskRepository.findByUserIdAndIdGreaterThanAndDeletedFalseOrderByIdAsc(
+                testUser.getId(), 0L, Limit.of(10)).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void findByUserIdAndIdGreaterThan_SeeksPastCursor() {
+        Task task2 = new Task();
+        task2.setTitle("Task 2");
+        task2.setIsCompleted(false);
+        task2.setUser(testUser);
+        Task task3 = new Task();
+        task3.setTitle("Task 3");
+        task3.setIsCompleted(false);
+        task3.setUser(testUser);
+
+        Task first = taskRepository.save(testTask);
+        Task second = taskRepository.save(task2);
+        Task third = taskRepository.save(task3);
+
+        List<Task> firstPage = taskRepository.findByUserIdAndIdGreaterThanAndDeletedFalseOrderByIdAsc(
+                testUser.getId(), 0L, Limit.of(2));
+        List<Task> secondPage = taskRepository.findByUserIdAndIdGreaterThanAndDeletedFalseOrderByIdAsc(
+                testUser.getId(), firstPage.get(1).getId(), Limit.of(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(Task::getId).toList());
+        assertEquals(List.of(third.getId()), secondPage.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void updateStatusByUserIdAndStatus_UpdatesOnlyMatchingRows() {
+        Task completedTask = new Task("Done", null, true, testUser);
+        taskRepository.save(testTask);
+        taskRepository.save(completedTask);
+        taskRepository.save(new Task("Also pending", null, false, testUser));
+
+        int updated = taskRepository.updateStatusByUserIdAndStatus(testUser.getId(), false, true, Instant.now());
+
+        assertEquals(2, updated);
+        assertEquals(3, taskRepository.findByUserIdAndIsCompletedAndDeletedFalse(testUser.getId(), true).size());
+    }
+
+    @Test
+    void updateStatusByIdIn_SkipsRowsAlreadyInTargetStatus() {
+        Task pending = taskRepository.save(testTask);
+        Task completed = taskRepository.save(new Task("Done", null, true, testUser));
+
+        int updated = taskRepository.updateStatusByIdIn(List.of(pending.getId(), completed.getId()), true, Instant.now());
+
+        assertEquals(1, updated);
+    }
+
+    @Test
+    void updateStatusById_ReturnsProjectedRowWithoutEntity() {
+        Task saved = taskRepository.save(testTask);
+
+        assertEquals(1, taskRepository.updateStatusById(saved.getId(), true, Instant.now()));
+        assertEquals(0, taskRepository.updateStatusById(999_999L, true, Instant.now()));
+
+        TaskDTO dto = taskRepository.findDtoById(saved.getId()).orElseThrow();
+        assertTrue(dto.getIsCompleted());
+        assertEquals(testUser.getId(), dto.getUserId());
+    }
+
     @Test
     void deleteTask_Success() {
         Task savedTask = taskRepository.save(testTask);
@@ -129,4 +214,189 @@ class TaskRepositoryIntegrationTest {
 
         assertFalse(taskRepository.existsById(taskId));
     }
+
+    @Test
+    void deleteByUserId_RemovesAllTasksInOneStatement() {
+        taskRepository.save(testTask);
+        taskRepository.save(new Task("Second", null, true, testUser));
+        entityManager.flush();
+        entityManager.clear();
+
+        int deleted = taskRepository.deleteByUserId(testUser.getId());
+        int deletedUsers = userRepository.deleteUserById(testUser.getId());
+
+        assertEquals(2, deleted);
+        assertEquals(1, deletedUsers);
+        assertTrue(taskRepository.findByUserIdAndDeletedFalse(testUser.getId()).isEmpty());
+        assertFalse(userRepository.existsById(testUser.getId()));
+        assertEquals(0, userRepository.deleteUserById(testUser.getId()));
+    }
+
+    @Test
+    void findChangesSince_ReturnsUpdatesAndTombstonesInSequenceOrder() {
+        Task first = taskRepository.save(testTask);
+        Task second = taskRepository.save(new Task("Second", null, false, testUser));
+        entityManager.flush();
+
+        userRepository.recordChangeOfTask(first.getId());
+        taskRepository.softDeleteById(first.getId(), Instant.now());
+        userRepository.recordChangeOfTask(second.getId());
+        taskRepository.updateStatusById(second.getId(), true, Instant.now());
+
+        List<TaskChangeDTO> changes = taskRepository.findChangesSince(testUser.getId(), 0L, 0L, Limit.of(10));
+        assertEquals(List.of(first.getId(), second.getId()), changes.stream().map(TaskChangeDTO::getId).toList());
+        assertTrue(changes.get(0).getDeleted());
+        assertEquals(1L, changes.get(0).getChangeSeq());
+        assertEquals(2L, changes.get(1).getChangeSeq());
+        assertTrue(changes.get(1).getIsCompleted());
+
+        List<TaskChangeDTO> afterFirst = taskRepository.findChangesSince(testUser.getId(), 1L, first.getId(), Limit.of(10));
+        assertEquals(List.of(second.getId()), afterFirst.stream().map(TaskChangeDTO::getId).toList());
+
+        assertTrue(taskRepository.findDtoById(first.getId()).isEmpty());
+        assertEquals(List.of(second.getId()), taskRepository
+                .findDtosByUserIdAndIdGreaterThan(testUser.getId(), 0L, Limit.of(10)).stream()
+                .map(TaskDTO::getId).toList());
+        assertEquals(0, taskRepository.softDeleteById(first.getId(), Instant.now()));
+    }
+
+    @Test
+    void taskCounters_FollowStatusChangesAndDeletions() {
+        Task open = taskRepository.save(testTask);
+        Task done = taskRepository.save(new Task("Done", null, true, testUser));
+        Task other = taskRepository.save(new Task("Other", null, false, testUser));
+        entityManager.flush();
+        Long userId = testUser.getId();
+        userRepository.recordTaskChange(userId, 3, 1);
+
+        List<Long> ids = List.of(open.getId(), done.getId());
+        userRepository.recordTaskChange(userId);
+        assertEquals(1, taskRepository.updateStatusByIdIn(ids, true, Instant.now()));
+        userRepository.recordStatusChangeOfTasks(Set.of(userId), ids, true);
+        assertEquals(new TaskStatsDTO(userId, 3L, 2L, 1L), userRepository.findTaskStatsById(userId).orElseThrow());
+
+        userRepository.recordTaskChange(userId);
+        int reopened = taskRepository.updateStatusByUserIdAndStatus(userId, true, false, Instant.now());
+        userRepository.addToTaskCounts(userId, 0, -reopened);
+        assertEquals(new TaskStatsDTO(userId, 3L, 0L, 3L), userRepository.findTaskStatsById(userId).orElseThrow());
+
+        assertEquals(1, userRepository.recordChangeOfTask(other.getId()));
+        taskRepository.updateStatusByIdIn(List.of(other.getId()), true, Instant.now());
+        userRepository.addToTaskCounts(userId, 0, 1);
+        userRepository.recordTaskChange(userId);
+        taskRepository.softDeleteById(other.getId(), Instant.now());
+        userRepository.recordTaskDeletion(userId, other.getId());
+        assertEquals(new TaskStatsDTO(userId, 2L, 0L, 2L), userRepository.findTaskStatsById(userId).orElseThrow());
+        assertEquals(0, userRepository.recordChangeOfTask(other.getId()));
+    }
+
+    @Test
+    void recordStatusChangeOfTasks_CountsOnlyTasksStampedByTheLatestChange() {
+        Task earlier = taskRepository.save(testTask);
+        Task later = taskRepository.save(new Task("Later", null, false, testUser));
+        entityManager.flush();
+        Long userId = testUser.getId();
+        userRepository.recordTaskChange(userId, 2, 0);
+
+        userRepository.recordTaskChange(userId);
+        taskRepository.updateStatusByIdIn(List.of(earlier.getId()), true, Instant.now());
+        userRepository.recordTaskChange(userId);
+        taskRepository.updateStatusByIdIn(List.of(later.getId()), true, Instant.now());
+
+        assertEquals(1, userRepository.recordStatusChangeOfTasks(
+                Set.of(userId), List.of(earlier.getId(), later.getId()), true));
+        assertEquals(new TaskStatsDTO(userId, 2L, 1L, 1L), userRepository.findTaskStatsById(userId).orElseThrow());
+    }
+
+    @Test
+    void findDtosByUserIdAndIsCompletedAndIdGreaterThan_FiltersByStatus() {
+        taskRepository.save(testTask);
+        Task done = taskRepository.save(new Task("Done", null, true, testUser));
+        Task deleted = taskRepository.save(new Task("Deleted", null, true, testUser));
+        entityManager.flush();
+        taskRepository.softDeleteById(deleted.getId(), Instant.now());
+
+        List<TaskDTO> page = taskRepository.findDtosByUserIdAndIsCompletedAndIdGreaterThan(
+                testUser.getId(), true, 0L, Limit.of(10));
+
+        assertEquals(List.of(done.getId()), page.stream().map(TaskDTO::getId).toList());
+    }
+
+    @Test
+    void findDtosByUserIdAndIdGreaterThan_DoesNotHydrateEntities() {
+        Task first = taskRepository.save(testTask);
+        Task second = taskRepository.save(new Task("Second", null, true, testUser));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskDTO> page = taskRepository.findDtosByUserIdAndIdGreaterThan(testUser.getId(), first.getId(), Limit.of(10));
+
+        assertEquals(1, page.size());
+        assertEquals(second.getId(), page.getFirst().getId());
+        assertEquals(testUser.getId(), page.getFirst().getUserId());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findFieldsByIdGreaterThan_SelectsOnlyTheRequestedFields() {
+        taskRepository.save(testTask);
+        Task done = taskRepository.save(new Task("Done", "A long description", true, testUser));
+        Task deleted = taskRepository.save(new Task("Deleted", null, true, testUser));
+        entityManager.flush();
+        taskRepository.softDeleteById(deleted.getId(), Instant.now());
+
+        List<Map<String, Object>> rows = taskRepository.findFieldsByIdGreaterThan(
+                TaskField.parse("title,isCompleted"), testUser.getId(), true, 0L, 10);
+
+        assertEquals(1, rows.size());
+        assertEquals(List.of("id", "title", "isCompleted"), List.copyOf(rows.getFirst().keySet()));
+        assertEquals(done.getId(), rows.getFirst().get("id"));
+        assertEquals("Done", rows.getFirst().get("title"));
+        assertEquals(Boolean.TRUE, rows.getFirst().get("isCompleted"));
+    }
+
+    @Test
+    void search_RanksTitleMatchesFirstAndSeeksPastTheCursor() {
+        Task inDescription = taskRepository.save(new Task("Errands", "Buy MILK and bread", false, testUser));
+        Task inTitle = taskRepository.save(new Task("Milk run", "Corner shop", false, testUser));
+        Task oneWordOnly = taskRepository.save(new Task("Milk", "Just milk", false, testUser));
+        Task deleted = taskRepository.save(new Task("Milk bread", null, false, testUser));
+        User other = userRepository.save(new User("Other", "other@example.com"));
+        taskRepository.save(new Task("Milk bread", null, false, other));
+        entityManager.flush();
+        taskRepository.softDeleteById(deleted.getId(), Instant.now());
+
+        List<TaskSearchHit> hits = taskRepository.search(testUser.getId(), "milk BREAD", Double.MAX_VALUE, 0L, 10);
+
+        assertEquals(List.of(inDescription.getId()), hits.stream().map(hit -> hit.getTask().getId()).toList());
+
+        List<TaskSearchHit> milk = taskRepository.search(testUser.getId(), "milk", Double.MAX_VALUE, 0L, 10);
+        assertEquals(List.of(inTitle.getId(), oneWordOnly.getId(), inDescription.getId()),
+                milk.stream().map(hit -> hit.getTask().getId()).toList());
+
+        TaskSearchHit first = milk.getFirst();
+        List<TaskSearchHit> rest = taskRepository.search(testUser.getId(), "milk", first.getRank(),
+                first.getTask().getId(), 10);
+        assertEquals(List.of(oneWordOnly.getId(), inDescription.getId()),
+                rest.stream().map(hit -> hit.getTask().getId()).toList());
+    }
+
+    @Test
+    void search_MatchesWholeWordsAndSkipsExcludedOnes() {
+        Task milk = taskRepository.save(new Task("Milk", "Whole milk, two bottles", false, testUser));
+        taskRepository.save(new Task("Buttermilk pancakes", null, false, testUser));
+        Task milkAndBread = taskRepository.save(new Task("Milk and bread", null, false, testUser));
+        entityManager.flush();
+
+        assertEquals(List.of(milk.getId(), milkAndBread.getId()), searchIds("milk"));
+        assertEquals(List.of(milk.getId()), searchIds("milk -bread"));
+        assertEquals(List.of(milk.getId()), searchIds("bottles,"));
+        assertEquals(List.of(), searchIds("!!"));
+    }
+
+    private List<Long> searchIds(String query) {
+        return taskRepository.search(testUser.getId(), query, Double.MAX_VALUE, 0L, 10).stream()
+                .map(hit -> hit.getTask().getId())
+                .toList();
+    }
 }
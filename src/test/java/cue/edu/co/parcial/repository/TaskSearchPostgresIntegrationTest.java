@@ -0,0 +1,117 @@
+package cue.edu.co.parcial.repository;
+
+import cue.edu.co.parcial.config.SqlStatementCounter;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.support.PostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the task search against PostgreSQL, where it uses the tsvector column
+ * and GIN index from the V3 migration instead of the H2 fallback. The
+ * matching cases mirror the search tests in {@link TaskRepositoryIntegrationTest}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "cue.edu.co.parcial.config.SqlStatementCounter")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class TaskSearchPostgresIntegrationTest extends PostgresContainerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(new User("John Doe", "john." + System.nanoTime() + "@example.com"));
+    }
+
+    @Test
+    void search_RanksTitleMatchesFirstAndSeeksPastTheCursor() {
+        Task inDescription = taskRepository.save(new Task("Errands", "Buy MILK and bread", false, testUser));
+        Task inTitle = taskRepository.save(new Task("Milk run", "Corner shop", false, testUser));
+        Task oneWordOnly = taskRepository.save(new Task("Milk", "Just that", false, testUser));
+        Task deleted = taskRepository.save(new Task("Milk bread", null, false, testUser));
+        User other = userRepository.save(new User("Other", "other." + System.nanoTime() + "@example.com"));
+        taskRepository.save(new Task("Milk bread", null, false, other));
+        entityManager.flush();
+        taskRepository.softDeleteById(deleted.getId(), Instant.now());
+
+        assertEquals(List.of(inDescription.getId()), searchIds("milk BREAD"));
+
+        List<TaskSearchHit> milk = taskRepository.search(testUser.getId(), "milk", Double.MAX_VALUE, 0L, 10);
+        List<Long> milkIds = milk.stream().map(hit -> hit.getTask().getId()).toList();
+        assertEquals(Set.of(inTitle.getId(), oneWordOnly.getId()), Set.copyOf(milkIds.subList(0, 2)));
+        assertEquals(inDescription.getId(), milkIds.get(2));
+
+        TaskSearchHit first = milk.getFirst();
+        List<TaskSearchHit> rest = taskRepository.search(testUser.getId(), "milk", first.getRank(),
+                first.getTask().getId(), 10);
+        assertEquals(milkIds.subList(1, 3), rest.stream().map(hit -> hit.getTask().getId()).toList());
+    }
+
+    @Test
+    void search_MatchesWholeWordsAndSkipsExcludedOnes() {
+        Task milk = taskRepository.save(new Task("Milk", "Whole milk, two bottles", false, testUser));
+        taskRepository.save(new Task("Buttermilk pancakes", null, false, testUser));
+        Task milkAndBread = taskRepository.save(new Task("Milk and bread", null, false, testUser));
+        entityManager.flush();
+
+        assertEquals(List.of(milk.getId(), milkAndBread.getId()), searchIds("milk"));
+        assertEquals(List.of(milk.getId()), searchIds("milk -bread"));
+        assertEquals(List.of(milk.getId()), searchIds("bottles,"));
+        assertEquals(List.of(), searchIds("!!"));
+    }
+
+    @Test
+    void search_UsesTheSearchIndex() {
+        List<Object[]> tasks = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            tasks.add(new Object[]{"Routine chore " + i, testUser.getId()});
+        }
+        tasks.add(new Object[]{"Feed the zebra", testUser.getId()});
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, user_id)"
+                + " VALUES (nextval('" + Task.ID_SEQUENCE + "'), ?, ?)", tasks);
+        jdbcTemplate.execute("ANALYZE tasks");
+        SqlStatementCounter.reset();
+
+        taskRepository.search(testUser.getId(), "zebra", Double.MAX_VALUE, 0L, 51);
+
+        String sql = SqlStatementCounter.lastStatement();
+        assertNotNull(sql, "No statement was captured");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                "zebra", testUser.getId(), Double.MAX_VALUE, Double.MAX_VALUE, 0L, 51));
+        assertTrue(plan.contains("idx_tasks_search"), () -> "Expected idx_tasks_search in:\n" + plan);
+    }
+
+    private List<Long> searchIds(String query) {
+        return taskRepository.search(testUser.getId(), query, Double.MAX_VALUE, 0L, 10).stream()
+                .map(hit -> hit.getTask().getId())
+                .toList();
+    }
+}
@@ -1,12 +1,15 @@
 package cue.edu.co.parcial.repository;
 
+import cue.edu.co.parcial.dto.UserDTO;
 import cue.edu.co.parcial.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -96,4 +99,21 @@ class UserRepositoryIntegrationTest {
 
         assertEquals(2, userRepository.findAll().size());
     }
+
+    @Test
+    void findDtosByIdGreaterThan_ProjectsOrderedPage() {
+        User user2 = new User();
+        user2.setName("Jane Doe");
+        user2.setEmail("jane@example.com");
+
+        User first = userRepository.save(testUser);
+        User second = userRepository.save(user2);
+
+        List<UserDTO> page = userRepository.findDtosByIdGreaterThan(first.getId(), Limit.of(10));
+
+        assertEquals(1, page.size());
+        assertEquals(second.getId(), page.getFirst().getId());
+        assertEquals("jane@example.com", page.getFirst().getEmail());
+        assertEquals(second.getEmail(), userRepository.findDtoById(second.getId()).orElseThrow().getEmail());
+    }
 }
@@ -0,0 +1,96 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.config.CoalescingAspect;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.support.QueryCountExtension;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static cue.edu.co.parcial.support.QueryCountExtension.assertConcurrentQueryCount;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires concurrent cache misses for the same user and task through the real
+ * cache, coalescing and transaction advice, and checks they reach the
+ * database once between them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
+class CoalescedReadIntegrationTest {
+
+    private static final int CALLERS = 8;
+    private static final long LOAD_DELAY_MS = 200;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UserDTO owner;
+    private TaskDTO task;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDTO(null, "Cole Coalesced", "cole." + System.nanoTime() + "@example.com", null));
+        task = taskService.createTask(new TaskDTO(null, "Shared", null, false, owner.getId(), null));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getUserById_ConcurrentMissesIssueOneQuery() throws Throwable {
+        List<UserDTO> users = assertConcurrentQueryCount(1, CALLERS, () -> userService.getUserById(owner.getId()));
+
+        assertTrue(users.stream().allMatch(user -> owner.getId().equals(user.getId())));
+    }
+
+    @Test
+    void getTaskById_ConcurrentMissesIssueOneQuery() throws Throwable {
+        List<TaskDTO> tasks = assertConcurrentQueryCount(1, CALLERS, () -> taskService.getTaskById(task.getId()));
+
+        assertTrue(tasks.stream().allMatch(loaded -> task.getId().equals(loaded.getId())));
+    }
+
+    @TestConfiguration
+    static class SlowLoads {
+
+        @Bean
+        SlowLoadAspect slowLoadAspect() {
+            return new SlowLoadAspect();
+        }
+    }
+
+    /**
+     * Holds each load inside the coalescing advice for a moment, so every
+     * caller arrives while the first one is still in flight rather than after
+     * its result has been cached.
+     */
+    @Aspect
+    @Order(CoalescingAspect.ORDER + 1)
+    static class SlowLoadAspect {
+
+        @Around("@annotation(cue.edu.co.parcial.config.Coalesced)")
+        public Object delay(ProceedingJoinPoint joinPoint) throws Throwable {
+            Thread.sleep(LOAD_DELAY_MS);
+            return joinPoint.proceed();
+        }
+    }
+}
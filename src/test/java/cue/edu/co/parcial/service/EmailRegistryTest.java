@@ -0,0 +1,116 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmailRegistry emailRegistry;
+
+    @BeforeEach
+    void setUp() {
+        emailRegistry = new EmailRegistry(userRepository, meterRegistry, true, 1000, 0.01);
+    }
+
+    @Test
+    void isRegistered_QueriesUntilTheFilterIsBuilt() {
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertFalse(emailRegistry.isRegistered("new@example.com"));
+
+        verify(userRepository).existsByEmail("new@example.com");
+    }
+
+    @Test
+    void isRegistered_SkipsTheQueryForEmailsTheFilterHasNeverSeen() {
+        rebuildWith("taken@example.com");
+
+        assertFalse(emailRegistry.isRegistered("new@example.com"));
+
+        verify(userRepository, never()).existsByEmail(any());
+        assertEquals(1, checks("filtered"));
+    }
+
+    @Test
+    void isRegistered_ConfirmsEveryPossibleMatch() {
+        rebuildWith("taken@example.com");
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertTrue(emailRegistry.isRegistered("taken@example.com"));
+        assertTrue(emailRegistry.isRegistered("taken@example.com"));
+
+        verify(userRepository, times(2)).existsByEmail("taken@example.com");
+        assertEquals(2, checks("queried"));
+    }
+
+    @Test
+    void registered_AddsTheEmailToTheFilter() {
+        rebuildWith();
+        emailRegistry.registered("fresh@example.com");
+        when(userRepository.existsByEmail("fresh@example.com")).thenReturn(true);
+
+        assertTrue(emailRegistry.isRegistered("fresh@example.com"));
+    }
+
+    @Test
+    void isRegistered_SeesAnEmailFreedElsewhere() {
+        rebuildWith("taken@example.com");
+        // Taken on the first check, then freed by another instance
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true, false);
+
+        assertTrue(emailRegistry.isRegistered("taken@example.com"));
+        assertFalse(emailRegistry.isRegistered("taken@example.com"));
+    }
+
+    @Test
+    void disabledRegistry_AlwaysQueries() {
+        EmailRegistry disabled = new EmailRegistry(userRepository, meterRegistry, false, 1000, 0.01);
+        disabled.rebuild();
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertFalse(disabled.isRegistered("new@example.com"));
+
+        verify(userRepository, never()).streamAllEmails();
+        verify(userRepository).existsByEmail("new@example.com");
+    }
+
+    @Test
+    void bloomFilter_HasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com")));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private void rebuildWith(String... emails) {
+        when(userRepository.count()).thenReturn((long) emails.length);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of(emails));
+        emailRegistry.rebuild();
+    }
+
+    private double checks(String outcome) {
+        return meterRegistry.counter(EmailRegistry.METRIC, "outcome", outcome).count();
+    }
+}
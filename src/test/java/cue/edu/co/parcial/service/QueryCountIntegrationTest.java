@@ -0,0 +1,190 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.BulkStatusUpdateDTO;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskBatchResult;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.dto.VersionedPage;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.repository.TaskRepository;
+import cue.edu.co.parcial.repository.UserRepository;
+import cue.edu.co.parcial.support.QueryCountExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static cue.edu.co.parcial.support.QueryCountExtension.assertQueryCount;
+import static cue.edu.co.parcial.support.QueryCountExtension.assertQueryCountAtMost;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements per service operation so that N+1
+ * regressions fail the build.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
+class QueryCountIntegrationTest {
+
+    private static final int DEFAULT_LIMIT = Integer.parseInt(CursorPagination.DEFAULT_LIMIT);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UserDTO owner;
+    private List<Long> taskIds;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        owner = userService.createUser(new UserDTO(null, "Quinn Query", "quinn.query." + System.nanoTime() + "@example.com", null));
+        List<TaskDTO> batch = List.of(
+                new TaskDTO(null, "One", null, false, owner.getId(), null),
+                new TaskDTO(null, "Two", null, false, owner.getId(), null),
+                new TaskDTO(null, "Three", null, true, owner.getId(), null));
+        // One user lookup, claiming the user's change sequence, one batched insert and the occasional sequence calls
+        List<TaskBatchResult> created = assertQueryCountAtMost(6, () -> taskService.createTasks(batch));
+        taskIds = created.stream().map(result -> result.getTask().getId()).toList();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getTasksByUserId_IsTheListVersionAndOneQueryRegardlessOfPageSize() throws Throwable {
+        VersionedPage<TaskDTO> page = assertQueryCount(2,
+                () -> taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT));
+        assertEquals(3, page.getPage().getItems().size());
+
+        assertQueryCount(0, () -> taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT));
+    }
+
+    @Test
+    void getTaskById_IsOneQueryThenCached() throws Throwable {
+        assertQueryCount(1, () -> taskService.getTaskById(taskIds.getFirst()));
+        assertQueryCount(0, () -> taskService.getTaskById(taskIds.getFirst()));
+    }
+
+    @Test
+    void getTasksByIds_IsOneQueryThenCached() throws Throwable {
+        List<Long> ids = new ArrayList<>(taskIds);
+        ids.add(Long.MAX_VALUE);
+        List<LookupResult<TaskDTO>> results = assertQueryCount(1, () -> taskService.getTasksByIds(ids));
+        assertEquals(LookupResult.Status.NOT_FOUND, results.getLast().getStatus());
+
+        assertQueryCount(0, () -> taskService.getTasksByIds(taskIds));
+        assertQueryCount(0, () -> taskService.getTaskById(taskIds.getFirst()));
+    }
+
+    @Test
+    void findById_SecondLoadOfAUserOrTaskIsServedFromTheSecondLevelCache() throws Throwable {
+        assertQueryCountAtMost(1, () -> userRepository.findById(owner.getId()));
+        assertEquals(owner.getEmail(), assertQueryCount(0, () -> userRepository.findById(owner.getId()))
+                .orElseThrow().getEmail());
+
+        assertQueryCountAtMost(1, () -> taskRepository.findById(taskIds.getFirst()));
+        assertEquals("One", assertQueryCount(0, () -> taskRepository.findById(taskIds.getFirst()))
+                .orElseThrow().getTitle());
+    }
+
+    @Test
+    void findById_TaskWritesKeepTheOwnerInTheSecondLevelCache() throws Throwable {
+        assertQueryCountAtMost(1, () -> userRepository.findById(owner.getId()));
+
+        // Each of these moves the owner's change sequence and task counters
+        taskService.createTask(new TaskDTO(null, "Four", null, false, owner.getId(), null));
+        taskService.updateTaskStatus(taskIds.getFirst(), true);
+        taskService.deleteTask(taskIds.getLast());
+
+        assertEquals(owner.getEmail(), assertQueryCount(0, () -> userRepository.findById(owner.getId()))
+                .orElseThrow().getEmail());
+        assertEquals(3L, userService.getTaskStats(owner.getId()).getTotal());
+    }
+
+    @Test
+    void findByUserId_SecondCallIsServedFromTheQueryCache() throws Throwable {
+        assertQueryCountAtMost(1, () -> taskRepository.findByUserIdAndDeletedFalse(owner.getId()));
+
+        List<Task> cached = assertQueryCount(0, () -> taskRepository.findByUserIdAndDeletedFalse(owner.getId()));
+        assertEquals(taskIds, cached.stream().map(Task::getId).sorted().toList());
+    }
+
+    @Test
+    void getTaskListVersion_IsOneQuery() throws Throwable {
+        // The batch in setUp claimed the user's first change sequence
+        assertEquals(1L, assertQueryCount(1, () -> taskService.getTaskListVersion(owner.getId())));
+    }
+
+    @Test
+    void getAllUsers_IsOneQuery() throws Throwable {
+        assertQueryCount(1, () -> userService.getAllUsers(null, DEFAULT_LIMIT));
+    }
+
+    @Test
+    void updateTasksStatus_ByIds_LooksUpOwnersAndUpdatesOnce() throws Throwable {
+        // Owner lookup, the owner's lock, the tasks themselves, then the counters
+        int updated = assertQueryCount(4, () -> taskService.updateTasksStatus(
+                new BulkStatusUpdateDTO(taskIds, null, null, true)));
+        assertEquals(2, updated);
+    }
+
+    @Test
+    void getTaskChanges_IsOneQuery() throws Throwable {
+        assertEquals(3, assertQueryCount(1, () -> taskService.getTaskChanges(owner.getId(), null, DEFAULT_LIMIT))
+                .getItems().size());
+    }
+
+    @Test
+    void getTaskStats_IsOneQueryAndFollowsTaskChanges() throws Throwable {
+        assertEquals(new TaskStatsDTO(owner.getId(), 3L, 1L, 2L),
+                assertQueryCount(1, () -> userService.getTaskStats(owner.getId())));
+
+        taskService.updateTasksStatus(new BulkStatusUpdateDTO(taskIds, null, null, true));
+        taskService.deleteTask(taskIds.getFirst());
+        taskService.updateTaskStatus(taskIds.get(1), false);
+
+        assertEquals(new TaskStatsDTO(owner.getId(), 2L, 1L, 1L), userService.getTaskStats(owner.getId()));
+    }
+
+    @Test
+    void deleteTask_IsAnOwnerLookupAndThreeUpdates() throws Throwable {
+        // Owner lookup, the owner's lock, the tombstone, then the counters
+        assertQueryCount(4, () -> {
+            taskService.deleteTask(taskIds.getFirst());
+            return null;
+        });
+    }
+
+    @Test
+    void createUser_WithANewEmailSkipsTheUniquenessQuery() throws Throwable {
+        // The insert and the occasional sequence call; the email filter rules out the existsByEmail query
+        assertQueryCountAtMost(2, () -> userService.createUser(
+                new UserDTO(null, "Nora New", "nora.new." + System.nanoTime() + "@example.com", null)));
+    }
+
+    @Test
+    void deleteUser_IsTwoStatements() throws Throwable {
+        assertQueryCount(2, () -> {
+            userService.deleteUser(owner.getId());
+            return null;
+        });
+    }
+}
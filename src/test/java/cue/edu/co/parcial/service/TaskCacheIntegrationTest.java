@@ -0,0 +1,138 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.dto.CacheStatsDTO;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.dto.VersionedPage;
+import cue.edu.co.parcial.exception.ResourceNotFoundException;
+import cue.edu.co.parcial.model.Task;
+import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
+import cue.edu.co.parcial.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCacheIntegrationTest {
+
+    private static final int DEFAULT_LIMIT = Integer.parseInt(CursorPagination.DEFAULT_LIMIT);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    private UserDTO owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDTO(null, "Carla Cache", "carla.cache." + System.nanoTime() + "@example.com", null));
+    }
+
+    @Test
+    void getTaskById_SecondReadIsServedFromCache() {
+        TaskDTO task = taskService.createTask(new TaskDTO(null, "Cached", null, false, owner.getId(), null));
+        long hitsBefore = hits(CacheConfig.TASKS);
+
+        taskService.getTaskById(task.getId());
+        taskService.getTaskById(task.getId());
+
+        assertEquals(hitsBefore + 2, hits(CacheConfig.TASKS));
+    }
+
+    @Test
+    void updateTaskStatus_RefreshesCachedTask() {
+        TaskDTO task = taskService.createTask(new TaskDTO(null, "Status", null, false, owner.getId(), null));
+        taskService.getTaskById(task.getId());
+
+        taskService.updateTaskStatus(task.getId(), true);
+
+        assertTrue(taskService.getTaskById(task.getId()).getIsCompleted());
+    }
+
+    @Test
+    void deleteTask_EvictsTaskAndUserTaskList() {
+        TaskDTO task = taskService.createTask(new TaskDTO(null, "Doomed", null, false, owner.getId(), null));
+        taskService.getTaskById(task.getId());
+        assertEquals(1, taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT).getPage().getItems().size());
+
+        taskService.deleteTask(task.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(task.getId()));
+        assertTrue(taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT).getPage().getItems().isEmpty());
+    }
+
+    @Test
+    void createTask_EvictsCachedFirstPageOfUserTasks() {
+        taskService.createTask(new TaskDTO(null, "First", null, false, owner.getId(), null));
+        VersionedPage<TaskDTO> cached = taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT);
+        assertEquals(1, cached.getPage().getItems().size());
+
+        taskService.createTask(new TaskDTO(null, "Second", null, false, owner.getId(), null));
+
+        VersionedPage<TaskDTO> reloaded = taskService.getTasksByUserId(owner.getId(), null, DEFAULT_LIMIT);
+        assertEquals(2, reloaded.getPage().getItems().size());
+        assertEquals(cached.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateUser_RefreshesCachedUser() {
+        userService.getUserById(owner.getId());
+
+        userService.updateUser(owner.getId(), new UserDTO(null, "Carla Renamed", owner.getEmail(), null));
+
+        assertEquals("Carla Renamed", userService.getUserById(owner.getId()).getName());
+    }
+
+    @Test
+    void taskWrites_InvalidateCachedEntitiesAndFindByUserIdResults() {
+        TaskDTO task = taskService.createTask(new TaskDTO(null, "Queried", null, false, owner.getId(), null));
+        assertEquals(1, taskRepository.findByUserIdAndDeletedFalse(owner.getId()).size());
+        assertFalse(taskRepository.findById(task.getId()).orElseThrow().getIsCompleted());
+
+        taskService.createTask(new TaskDTO(null, "Added", null, false, owner.getId(), null));
+        taskService.updateTaskStatus(task.getId(), true);
+
+        assertEquals(2, taskRepository.findByUserIdAndDeletedFalse(owner.getId()).size());
+        assertTrue(taskRepository.findById(task.getId()).orElseThrow().getIsCompleted());
+        assertEquals(2L, userRepository.findTaskStatsById(owner.getId()).orElseThrow().getTotal());
+    }
+
+    @Test
+    void getCacheStats_ReportsSecondLevelCacheRegions() {
+        userRepository.findById(owner.getId());
+        userRepository.findById(owner.getId());
+
+        CacheStatsDTO users = cacheStatsService.getCacheStats().stream()
+                .filter(stats -> stats.getName().equals(User.CACHE_REGION))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(users.getHitCount() > 0);
+        assertTrue(cacheStatsService.getCacheStats().stream()
+                .anyMatch(stats -> stats.getName().equals(Task.CACHE_REGION)));
+    }
+
+    private long hits(String cacheName) {
+        return cacheStatsService.getCacheStats().stream()
+                .filter(stats -> stats.getName().equals(cacheName))
+                .mapToLong(CacheStatsDTO::getHitCount)
+                .sum();
+    }
+}
@@ -0,0 +1,105 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.BulkStatusUpdateDTO;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
+import cue.edu.co.parcial.dto.UserDTO;
+import cue.edu.co.parcial.exception.ResourceNotFoundException;
+import cue.edu.co.parcial.support.PostgresContainerTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Races status changes, bulk updates and deletions of the same tasks against
+ * each other on PostgreSQL, where each statement of a READ COMMITTED
+ * transaction reads its own snapshot, and checks the user's counters still
+ * match a recount of the tasks table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCountersConcurrencyTest extends PostgresContainerTest {
+
+    private static final int ROUNDS = 25;
+    private static final int TASKS_PER_ROUND = 4;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void counters_MatchARecountAfterConcurrentStatusChangesAndDeletions() throws Exception {
+        Long userId = userService.createUser(
+                new UserDTO(null, "Cora Concurrent", "cora." + System.nanoTime() + "@example.com", null)).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < TASKS_PER_ROUND; i++) {
+                    ids.add(taskService.createTask(new TaskDTO(null, "Task " + round + "." + i, null, i % 2 == 0, userId, null)).getId());
+                }
+                runConcurrently(executor, List.of(
+                        () -> taskService.updateTaskStatus(ids.get(0), true),
+                        () -> taskService.deleteTask(ids.get(0)),
+                        () -> taskService.updateTasksStatus(new BulkStatusUpdateDTO(ids, null, null, true)),
+                        () -> taskService.updateTasksStatus(new BulkStatusUpdateDTO(null, userId, null, false)),
+                        () -> taskService.deleteTask(ids.get(1)),
+                        () -> taskService.updateTaskStatus(ids.get(1), false)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TaskStatsDTO recount = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(CASE WHEN is_completed THEN 1 ELSE 0 END), 0)"
+                        + " FROM tasks WHERE user_id = ? AND deleted = false",
+                (rs, rowNum) -> new TaskStatsDTO(userId, rs.getLong(1), rs.getLong(2), rs.getLong(1) - rs.getLong(2)),
+                userId);
+        assertEquals(recount, userService.getTaskStats(userId));
+    }
+
+    /**
+     * Releases the operations together and waits for all of them. An
+     * operation may find its task already deleted by another; anything else
+     * fails the test.
+     */
+    private static void runConcurrently(ExecutorService executor, List<Runnable> operations) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable operation : operations) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                operation.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof ResourceNotFoundException)) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
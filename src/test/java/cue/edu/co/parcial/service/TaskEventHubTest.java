@@ -0,0 +1,72 @@
+package cue.edu.co.parcial.service;
+
+import cue.edu.co.parcial.dto.TaskEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskEventHubTest {
+
+    /** Collects drain tasks without running them, so subscribers never catch up. */
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private final TaskEventHub hub = new TaskEventHub(2, Duration.ofMinutes(1), Duration.ofHours(1), pendingDrains::add);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscribe_RegistersOneSubscriberPerStream() {
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+
+        assertEquals(2, hub.subscriberCount(1L));
+        assertEquals(0, hub.subscriberCount(2L));
+    }
+
+    @Test
+    void onTaskEvent_SchedulesASingleDrainWhileOneIsPending() {
+        hub.subscribe(1L);
+
+        hub.onTaskEvent(TaskEvent.deleted(1L, 10L));
+        hub.onTaskEvent(TaskEvent.deleted(1L, 11L));
+
+        assertEquals(1, pendingDrains.size());
+    }
+
+    @Test
+    void onTaskEvent_DisconnectsSubscriberWhoseBufferIsFull() {
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.onTaskEvent(TaskEvent.deleted(1L, 10L));
+        hub.onTaskEvent(TaskEvent.deleted(1L, 11L));
+        assertEquals(1, hub.subscriberCount(1L));
+
+        hub.onTaskEvent(TaskEvent.deleted(1L, 12L));
+
+        assertEquals(0, hub.subscriberCount(1L));
+        assertEquals(1, hub.subscriberCount(2L));
+    }
+
+    @Test
+    void onTaskEvent_IgnoresUsersWithoutSubscribers() {
+        hub.onTaskEvent(TaskEvent.bulkChanged(3L));
+
+        assertEquals(0, pendingDrains.size());
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveBufferSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskEventHub(0, Duration.ofMinutes(1), Duration.ofHours(1), Runnable::run));
+    }
+}
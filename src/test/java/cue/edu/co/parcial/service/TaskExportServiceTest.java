@@ -0,0 +1,74 @@
+package cue.edu.co.parcial.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        taskExportService = new TaskExportService(taskRepository, objectMapper);
+    }
+
+    @Test
+    void exportTasks_WritesOneJsonDocumentPerLine() throws Exception {
+        when(taskRepository.streamAllDtos()).thenReturn(Stream.of(task(1L), task(2L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = taskExportService.exportTasks(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        TaskDTO first = objectMapper.readValue(lines[0], TaskDTO.class);
+        assertEquals(1L, first.getId());
+        assertEquals("Task 1", first.getTitle());
+        assertEquals(1L, first.getUserId());
+    }
+
+    @Test
+    void exportTasks_StreamsLargeResultsWithoutLoadingEntities() throws Exception {
+        int rows = 1_001;
+        when(taskRepository.streamAllDtos()).thenReturn(LongStream.rangeClosed(1, rows).mapToObj(this::task));
+
+        long written = taskExportService.exportTasks(new ByteArrayOutputStream());
+
+        assertEquals(rows, written);
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void exportTasks_EmptyTable() throws Exception {
+        when(taskRepository.streamAllDtos()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, taskExportService.exportTasks(out));
+        assertEquals(0, out.size());
+    }
+
+    private TaskDTO task(long id) {
+        return new TaskDTO(id, "Task " + id, "Description " + id, false, 1L, 0L);
+    }
+}
@@ -1,6 +1,17 @@
 package cue.edu.co.parcial.service;
 
+import cue.edu.co.parcial.config.CacheConfig;
+import cue.edu.co.parcial.dto.BulkStatusUpdateDTO;
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskBatchResult;
+import cue.edu.co.parcial.dto.TaskChangeDTO;
+import cue.edu.co.parcial.dto.TaskChanges;
 import cue.edu.co.parcial.dto.TaskDTO;
+import cue.edu.co.parcial.dto.TaskEvent;
+import cue.edu.co.parcial.dto.TaskField;
+import cue.edu.co.parcial.dto.TaskSearchHit;
+import cue.edu.co.parcial.dto.VersionedPage;
 import cue.edu.co.parcial.exception.ResourceNotFoundException;
 import cue.edu.co.parcial.model.Task;
 import cue.edu.co.parcial.model.User;
@@ -9,17 +20,31 @@ import cue.edu.co.parcial.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +56,12 @@ class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -61,7 +92,9 @@ class TaskServiceTest {
 
     @Test
     void createTask_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(userRepository.recordTaskChange(1L, 1L, 0L)).thenReturn(1);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(7L);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
         TaskDTO result = taskService.createTask(testTaskDTO);
@@ -72,23 +105,109 @@ class TaskServiceTest {
         assertEquals(testTask.getDescription(), result.getDescription());
         assertEquals(testTask.getIsCompleted(), result.getIsCompleted());
 
-        verify(userRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(userRepository, never()).findById(any());
+        verify(taskRepository, times(1)).save(ArgumentMatchers.<Task>argThat(task -> task.getChangeSeq() == 7L));
+    }
+
+    @Test
+    void createTask_CountsACompletedTask() {
+        testTaskDTO.setIsCompleted(true);
+        testTask.setIsCompleted(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(userRepository.recordTaskChange(1L, 1L, 1L)).thenReturn(1);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(2L);
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.createTask(testTaskDTO);
+
+        verify(userRepository, times(1)).recordTaskChange(1L, 1L, 1L);
     }
 
     @Test
     void createTask_UserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(userRepository.recordTaskChange(1L, 1L, 0L)).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.createTask(testTaskDTO));
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).recordTaskChange(1L, 1L, 0L);
         verify(taskRepository, never()).save(any(Task.class));
     }
 
+    @Test
+    void createTasks_ResolvesUsersOnceAndReportsEachItem() {
+        TaskDTO unknownUser = new TaskDTO(null, "Orphan", null, false, 99L, null);
+        TaskDTO missingTitle = new TaskDTO(null, " ", null, false, 1L, null);
+
+        when(userRepository.findExistingIds(Set.of(1L, 99L))).thenReturn(Set.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(userRepository.recordTaskChange(1L, 1L, 0L)).thenReturn(1);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(3L);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            long id = 10L;
+            for (Task task : tasks) {
+                task.setId(id++);
+            }
+            return tasks;
+        });
+
+        List<TaskBatchResult> results = taskService.createTasks(
+                Arrays.asList(testTaskDTO, unknownUser, missingTitle));
+
+        assertEquals(3, results.size());
+        assertEquals(TaskBatchResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getTask().getId());
+        assertEquals(TaskBatchResult.Status.REJECTED, results.get(1).getStatus());
+        assertEquals("User not found with id: '99'", results.get(1).getError());
+        assertEquals(TaskBatchResult.Status.REJECTED, results.get(2).getStatus());
+        assertEquals("Title is required", results.get(2).getError());
+
+        verify(userRepository, times(1)).findExistingIds(anyCollection());
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).recordTaskChange(eq(99L), anyLong(), anyLong());
+        verify(taskRepository, times(1)).saveAll(ArgumentMatchers.<List<Task>>argThat(tasks -> tasks.size() == 1
+                && tasks.get(0).getChangeSeq() == 3L));
+    }
+
+    @Test
+    void createTasks_RejectsOverlongItemsAndKeepsTheRest() {
+        TaskDTO longTitle = new TaskDTO(null, "t".repeat(Task.TITLE_MAX_LENGTH + 1), null, false, 1L, null);
+        TaskDTO longDescription = new TaskDTO(null, "Fine", "d".repeat(Task.DESCRIPTION_MAX_LENGTH + 1),
+                false, 1L, null);
+
+        when(userRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(userRepository.recordTaskChange(1L, 1L, 0L)).thenReturn(1);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(4L);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskBatchResult> results = taskService.createTasks(
+                Arrays.asList(longTitle, testTaskDTO, longDescription));
+
+        assertEquals("Title must be at most 255 characters", results.get(0).getError());
+        assertEquals(TaskBatchResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals("Description must be at most 1000 characters", results.get(2).getError());
+        verify(taskRepository, times(1)).saveAll(ArgumentMatchers.<List<Task>>argThat(tasks -> tasks.size() == 1));
+    }
+
+    @Test
+    void createTasks_RejectsOversizedBatch() {
+        List<TaskDTO> batch = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, testTaskDTO);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(batch));
+
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createTasks_RejectsEmptyBatch() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(List.of()));
+    }
+
     @Test
     void getTaskById_Success() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.of(TaskService.convertToDTO(testTask)));
 
         TaskDTO result = taskService.getTaskById(1L);
 
@@ -96,16 +215,17 @@ class TaskServiceTest {
         assertEquals(testTask.getId(), result.getId());
         assertEquals(testTask.getTitle(), result.getTitle());
 
-        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(1)).findDtoById(1L);
+        verify(taskRepository, never()).findById(any());
     }
 
     @Test
     void getTaskById_NotFound() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(1L));
 
-        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(1)).findDtoById(1L);
     }
 
     @Test
@@ -117,39 +237,290 @@ class TaskServiceTest {
         task2.setIsCompleted(true);
         task2.setUser(testUser);
 
-        when(taskRepository.findAll()).thenReturn(Arrays.asList(testTask, task2));
+        when(taskRepository.findDtosByIdGreaterThan(0L, Limit.of(51)))
+                .thenReturn(Arrays.asList(TaskService.convertToDTO(testTask), TaskService.convertToDTO(task2)));
 
-        List<TaskDTO> results = taskService.getAllTasks();
+        CursorPage<TaskDTO> results = taskService.getAllTasks(null, 50);
 
         assertNotNull(results);
-        assertEquals(2, results.size());
+        assertEquals(2, results.getItems().size());
+        assertNull(results.getNextCursor());
+
+        verify(taskRepository, times(1)).findDtosByIdGreaterThan(0L, Limit.of(51));
+    }
+
+    @Test
+    void getAllTasks_ReturnsNextCursorWhenMoreRowsExist() {
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setTitle("Task 2");
+        task2.setIsCompleted(false);
+        task2.setUser(testUser);
+
+        when(taskRepository.findDtosByIdGreaterThan(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(TaskService.convertToDTO(testTask), TaskService.convertToDTO(task2)));
+
+        CursorPage<TaskDTO> firstPage = taskService.getAllTasks(null, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(CursorPagination.encode(1L), firstPage.getNextCursor());
+
+        when(taskRepository.findDtosByIdGreaterThan(1L, Limit.of(2)))
+                .thenReturn(Collections.singletonList(TaskService.convertToDTO(task2)));
+
+        CursorPage<TaskDTO> secondPage = taskService.getAllTasks(firstPage.getNextCursor(), 1);
+
+        assertEquals(2L, secondPage.getItems().getFirst().getId());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getAllTasks_LimitIsCappedServerSide() {
+        when(taskRepository.findDtosByIdGreaterThan(0L, Limit.of(CursorPagination.MAX_LIMIT + 1)))
+                .thenReturn(Collections.emptyList());
+
+        CursorPage<TaskDTO> results = taskService.getAllTasks(null, 100_000);
 
-        verify(taskRepository, times(1)).findAll();
+        assertTrue(results.getItems().isEmpty());
+        verify(taskRepository, times(1))
+                .findDtosByIdGreaterThan(0L, Limit.of(CursorPagination.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void getAllTasks_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getAllTasks("not-a-cursor", 10));
+
+        verify(taskRepository, never()).findDtosByIdGreaterThan(any(), any());
+    }
+
+    @Test
+    void getTasksByIds_ServesCachedTasksAndLoadsTheRestInRequestOrder() {
+        Cache tasks = mock(Cache.class);
+        TaskDTO cached = new TaskDTO(1L, "Cached", null, false, 1L, 0L);
+        TaskDTO loaded = new TaskDTO(2L, "Loaded", null, true, 1L, 0L);
+        when(cacheManager.getCache(CacheConfig.TASKS)).thenReturn(tasks);
+        when(tasks.get(any(), eq(TaskDTO.class))).thenAnswer(invocation ->
+                Long.valueOf(1L).equals(invocation.getArgument(0)) ? cached : null);
+        when(taskRepository.findDtosByIdIn(List.of(3L, 2L))).thenReturn(List.of(loaded));
+
+        List<LookupResult<TaskDTO>> results = taskService.getTasksByIds(List.of(3L, 1L, 2L, 1L));
+
+        assertEquals(List.of(LookupResult.notFound(3L), LookupResult.found(1L, cached),
+                LookupResult.found(2L, loaded), LookupResult.found(1L, cached)), results);
+        verify(tasks).put(2L, loaded);
+        verify(taskRepository, never()).findDtoById(any());
+    }
+
+    @Test
+    void getTasksByIds_SplitsLongListsIntoChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, MultiGet.MAX_IDS).boxed().toList();
+        when(taskRepository.findDtosByIdIn(anyCollection())).thenReturn(List.of());
+
+        List<LookupResult<TaskDTO>> results = taskService.getTasksByIds(ids);
+
+        assertEquals(MultiGet.MAX_IDS, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == LookupResult.Status.NOT_FOUND));
+        verify(taskRepository, times(MultiGet.MAX_IDS / MultiGet.CHUNK_SIZE))
+                .findDtosByIdIn(ArgumentMatchers.<Collection<Long>>argThat(chunk -> chunk.size() == MultiGet.CHUNK_SIZE));
+    }
+
+    @Test
+    void getTasksByIds_RejectsEmptyAndOversizedLists() {
+        List<Long> tooMany = LongStream.rangeClosed(1, MultiGet.MAX_IDS + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByIds(tooMany));
+
+        verify(taskRepository, never()).findDtosByIdIn(any());
     }
 
     @Test
     void getTasksByUserId_Success() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(taskRepository.findByUserId(1L)).thenReturn(Collections.singletonList(testTask));
+        when(userRepository.findChangeSeqById(1L)).thenReturn(4L);
+        when(taskRepository.findDtosByUserIdAndIdGreaterThan(1L, 0L, Limit.of(51)))
+                .thenReturn(Collections.singletonList(TaskService.convertToDTO(testTask)));
 
-        List<TaskDTO> results = taskService.getTasksByUserId(1L);
+        VersionedPage<TaskDTO> results = taskService.getTasksByUserId(1L, null, 50);
 
         assertNotNull(results);
-        assertEquals(1, results.size());
-        assertEquals(testTask.getTitle(), results.getFirst().getTitle());
-
-        verify(userRepository, times(1)).existsById(1L);
-        verify(taskRepository, times(1)).findByUserId(1L);
+        assertEquals(4L, results.getVersion());
+        assertEquals(1, results.getPage().getItems().size());
+        assertEquals(testTask.getTitle(), results.getPage().getItems().getFirst().getTitle());
+
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(userRepository).findChangeSeqById(1L);
+        inOrder.verify(taskRepository).findDtosByUserIdAndIdGreaterThan(1L, 0L, Limit.of(51));
+        verify(userRepository, never()).existsById(any());
     }
 
     @Test
     void getTasksByUserId_UserNotFound() {
+        when(userRepository.findChangeSeqById(1L)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTasksByUserId(1L, null, 50));
+
+        verify(taskRepository, never()).findDtosByUserIdAndIdGreaterThan(any(), any(), any());
+    }
+
+    @Test
+    void getTasksByUserId_EmptyListForExistingUser() {
+        when(userRepository.findChangeSeqById(1L)).thenReturn(0L);
+        when(taskRepository.findDtosByUserIdAndIdGreaterThan(1L, 0L, Limit.of(51))).thenReturn(List.of());
+
+        VersionedPage<TaskDTO> results = taskService.getTasksByUserId(1L, null, 50);
+
+        assertTrue(results.getPage().getItems().isEmpty());
+        assertNull(results.getPage().getNextCursor());
+    }
+
+    @Test
+    void getTasksByUserIdAndStatus_QueriesOnlyTasksWithThatStatus() {
+        testTask.setIsCompleted(true);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(2L);
+        when(taskRepository.findDtosByUserIdAndIsCompletedAndIdGreaterThan(1L, true, 0L, Limit.of(51)))
+                .thenReturn(List.of(TaskService.convertToDTO(testTask)));
+
+        VersionedPage<TaskDTO> results = taskService.getTasksByUserIdAndStatus(1L, true, null, 50);
+
+        assertEquals(2L, results.getVersion());
+        assertEquals(1, results.getPage().getItems().size());
+        assertTrue(results.getPage().getItems().getFirst().getIsCompleted());
+        verify(taskRepository, never()).findDtosByUserIdAndIdGreaterThan(any(), any(), any());
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getTasksByUserIdAndStatus_UserNotFound() {
+        when(userRepository.findChangeSeqById(1L)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> taskService.getTasksByUserIdAndStatus(1L, false, null, 50));
+    }
+
+    @Test
+    void getTaskFields_PagesTheSparseRowsByTheirId() {
+        Set<TaskField> fields = TaskField.parse("title");
+        when(taskRepository.findFieldsByIdGreaterThan(fields, 1L, null, 0L, 2))
+                .thenReturn(List.of(Map.of("id", 3L, "title", "A"), Map.of("id", 7L, "title", "B")));
+
+        CursorPage<Map<String, Object>> results = taskService.getTaskFields(fields, 1L, null, null, 1);
+
+        assertEquals(List.of(Map.of("id", 3L, "title", "A")), results.getItems());
+        assertEquals(CursorPagination.encode(3L), results.getNextCursor());
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getTaskFields_UserNotFound() {
+        Set<TaskField> fields = TaskField.parse("id");
+        when(taskRepository.findFieldsByIdGreaterThan(fields, 1L, true, 0L, 51)).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskFields(fields, 1L, true, null, 50));
+    }
+
+    @Test
+    void getTaskFieldsByUserId_ReadsTheVersionBeforeThePage() {
+        Set<TaskField> fields = TaskField.parse("title");
+        when(userRepository.findChangeSeqById(1L)).thenReturn(6L);
+        when(taskRepository.findFieldsByIdGreaterThan(fields, 1L, false, 0L, 51))
+                .thenReturn(List.of(Map.of("id", 3L, "title", "A")));
+
+        VersionedPage<Map<String, Object>> results = taskService.getTaskFieldsByUserId(fields, 1L, false, null, 50);
+
+        assertEquals(6L, results.getVersion());
+        assertEquals(List.of(Map.of("id", 3L, "title", "A")), results.getPage().getItems());
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(userRepository).findChangeSeqById(1L);
+        inOrder.verify(taskRepository).findFieldsByIdGreaterThan(fields, 1L, false, 0L, 51);
+    }
+
+    @Test
+    void parseTaskFields_AlwaysIncludesTheIdAndRejectsUnknownFields() {
+        assertEquals(Set.of(TaskField.ID, TaskField.TITLE, TaskField.IS_COMPLETED),
+                TaskField.parse("isCompleted, title"));
+        assertThrows(IllegalArgumentException.class, () -> TaskField.parse("title,secret"));
+    }
+
+    @Test
+    void searchTasks_PagesHitsWithARankCursor() {
+        TaskDTO best = new TaskDTO(8L, "Buy milk", null, false, 1L, 0L);
+        TaskDTO next = new TaskDTO(3L, "Errands", "milk and bread", false, 1L, 0L);
+        SearchCursor after = new SearchCursor(0.9, 5L);
+        when(taskRepository.search(1L, "milk", 0.9, 5L, 2))
+                .thenReturn(List.of(new TaskSearchHit(best, 0.6), new TaskSearchHit(next, 0.3)));
+
+        CursorPage<TaskDTO> results = taskService.searchTasks(1L, " milk ", after.encode(), 1);
+
+        assertEquals(List.of(best), results.getItems());
+        assertEquals(new SearchCursor(0.6, 8L), SearchCursor.decode(results.getNextCursor()));
+    }
+
+    @Test
+    void searchTasks_RequiresAQuery() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(1L, " ", null, 50));
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(1L, "x".repeat(201), null, 50));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void searchTasks_UserNotFound() {
+        when(taskRepository.search(1L, "milk", Double.MAX_VALUE, 0L, 51)).thenReturn(List.of());
         when(userRepository.existsById(1L)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> taskService.getTasksByUserId(1L));
+        assertThrows(ResourceNotFoundException.class, () -> taskService.searchTasks(1L, "milk", null, 50));
+    }
+
+    @Test
+    void getTaskListVersion_IsTheUsersChangeSequence() {
+        when(userRepository.findChangeSeqById(1L)).thenReturn(9L);
+
+        assertEquals(9L, taskService.getTaskListVersion(1L));
+    }
+
+    @Test
+    void getTaskListVersion_UserNotFound() {
+        when(userRepository.findChangeSeqById(1L)).thenReturn(null);
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(taskRepository, never()).findByUserId(1L);
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskListVersion(1L));
+    }
+
+    @Test
+    void getTaskChanges_ReturnsChangesAfterCursorAndNextCursor() {
+        TaskChangeDTO created = new TaskChangeDTO(4L, "New", null, false, 1L, false, Instant.EPOCH, 5L);
+        TaskChangeDTO deleted = new TaskChangeDTO(2L, "Gone", null, false, 1L, true, Instant.EPOCH, 6L);
+        TaskChangeDTO beyondPage = new TaskChangeDTO(3L, "Later", null, true, 1L, false, Instant.EPOCH, 6L);
+        String since = new ChangeCursor(4L, 9L).encode();
+        when(taskRepository.findChangesSince(1L, 4L, 9L, Limit.of(3)))
+                .thenReturn(List.of(created, deleted, beyondPage));
+
+        TaskChanges changes = taskService.getTaskChanges(1L, since, 2);
+
+        assertEquals(List.of(created, deleted), changes.getItems());
+        assertTrue(changes.isHasMore());
+        assertEquals(new ChangeCursor(6L, 2L), ChangeCursor.decode(changes.getNextCursor()));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getTaskChanges_NoChangesKeepsTheCursor() {
+        String since = new ChangeCursor(6L, 2L).encode();
+        when(taskRepository.findChangesSince(1L, 6L, 2L, Limit.of(51))).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        TaskChanges changes = taskService.getTaskChanges(1L, since, 50);
+
+        assertTrue(changes.getItems().isEmpty());
+        assertFalse(changes.isHasMore());
+        assertEquals(since, changes.getNextCursor());
+    }
+
+    @Test
+    void getTaskChanges_UserNotFound() {
+        when(taskRepository.findChangesSince(1L, 0L, 0L, Limit.of(51))).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskChanges(1L, null, 50));
     }
 
     @Test
@@ -160,46 +531,174 @@ class TaskServiceTest {
         updateDTO.setIsCompleted(true);
         updateDTO.setUserId(1L);
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(testTask));
+        when(userRepository.recordTaskChange(1L, 0L, 1L)).thenReturn(1);
+        when(userRepository.findChangeSeqById(1L)).thenReturn(8L);
+        when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(testTask);
 
         TaskDTO result = taskService.updateTask(1L, updateDTO);
 
         assertNotNull(result);
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        assertEquals(8L, testTask.getChangeSeq());
+        assertTrue(testTask.getIsCompleted());
+        verify(taskRepository, times(1)).findByIdAndDeletedFalse(1L);
+        verify(taskRepository, times(1)).saveAndFlush(any(Task.class));
     }
 
     @Test
     void updateTaskStatus_Success() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        TaskDTO updated = new TaskDTO(1L, "Test Task", "Test Description", true, 1L, null);
+        when(userRepository.recordChangeOfTask(1L)).thenReturn(1);
+        when(taskRepository.updateStatusByIdIn(eq(List.of(1L)), eq(true), any(Instant.class))).thenReturn(1);
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.of(updated));
 
         TaskDTO result = taskService.updateTaskStatus(1L, true);
 
         assertNotNull(result);
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        assertTrue(result.getIsCompleted());
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(userRepository).recordChangeOfTask(1L);
+        inOrder.verify(taskRepository).updateStatusByIdIn(eq(List.of(1L)), eq(true), any(Instant.class));
+        inOrder.verify(userRepository).addToTaskCounts(1L, 0, 1);
+        verify(taskRepository, never()).updateStatusById(any(), any(), any());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher).publishEvent(TaskEvent.of(TaskEvent.Type.STATUS_CHANGED, updated));
+    }
+
+    @Test
+    void updateTaskStatus_UnchangedStatusLeavesCountersAlone() {
+        TaskDTO updated = new TaskDTO(1L, "Test Task", "Test Description", true, 1L, null);
+        when(userRepository.recordChangeOfTask(1L)).thenReturn(1);
+        when(taskRepository.updateStatusByIdIn(eq(List.of(1L)), eq(true), any(Instant.class))).thenReturn(0);
+        when(taskRepository.updateStatusById(eq(1L), eq(true), any(Instant.class))).thenReturn(1);
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.of(updated));
+
+        assertEquals(updated, taskService.updateTaskStatus(1L, true));
+
+        verify(userRepository, never()).addToTaskCounts(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void updateTaskStatus_NotFound() {
+        when(userRepository.recordChangeOfTask(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTaskStatus(1L, true));
+
+        verify(taskRepository, never()).updateStatusByIdIn(any(), any(), any());
+        verify(taskRepository, never()).findDtoById(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateTasksStatus_ByIds() {
+        BulkStatusUpdateDTO update = new BulkStatusUpdateDTO(List.of(1L, 2L, 3L), null, null, true);
+        when(taskRepository.findUserIdsByIdIn(List.of(1L, 2L, 3L))).thenReturn(Set.of(2L, 1L));
+        when(taskRepository.updateStatusByIdIn(eq(List.of(1L, 2L, 3L)), eq(true), any(Instant.class))).thenReturn(3);
+
+        assertEquals(3, taskService.updateTasksStatus(update));
+
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(userRepository).recordTaskChange(1L);
+        inOrder.verify(userRepository).recordTaskChange(2L);
+        inOrder.verify(taskRepository).updateStatusByIdIn(eq(List.of(1L, 2L, 3L)), eq(true), any(Instant.class));
+        inOrder.verify(userRepository).recordStatusChangeOfTasks(Set.of(1L, 2L), List.of(1L, 2L, 3L), true);
+    }
+
+    @Test
+    void updateTasksStatus_ByIdsOfMissingTasksUpdatesNothing() {
+        BulkStatusUpdateDTO update = new BulkStatusUpdateDTO(List.of(98L, 99L), null, null, true);
+        when(taskRepository.findUserIdsByIdIn(List.of(98L, 99L))).thenReturn(Set.of());
+
+        assertEquals(0, taskService.updateTasksStatus(update));
+
+        verify(taskRepository, never()).updateStatusByIdIn(any(), any(), any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void updateTasksStatus_ByUserDefaultsToOppositeStatus() {
+        BulkStatusUpdateDTO update = new BulkStatusUpdateDTO(null, 1L, null, true);
+        when(userRepository.recordTaskChange(1L)).thenReturn(1);
+        when(taskRepository.updateStatusByUserIdAndStatus(eq(1L), eq(false), eq(true), any(Instant.class))).thenReturn(5);
+
+        assertEquals(5, taskService.updateTasksStatus(update));
+
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(userRepository).recordTaskChange(1L);
+        inOrder.verify(taskRepository).updateStatusByUserIdAndStatus(eq(1L), eq(false), eq(true), any(Instant.class));
+        inOrder.verify(userRepository).addToTaskCounts(1L, 0, 5);
+    }
+
+    @Test
+    void updateTasksStatus_ByUserToSameStatusLeavesCountersAlone() {
+        BulkStatusUpdateDTO update = new BulkStatusUpdateDTO(null, 1L, true, true);
+        when(userRepository.recordTaskChange(1L)).thenReturn(1);
+        when(taskRepository.updateStatusByUserIdAndStatus(eq(1L), eq(true), eq(true), any(Instant.class))).thenReturn(2);
+
+        assertEquals(2, taskService.updateTasksStatus(update));
+
+        verify(userRepository, never()).addToTaskCounts(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void updateTasksStatus_ByUserNotFound() {
+        BulkStatusUpdateDTO update = new BulkStatusUpdateDTO(null, 1L, false, true);
+        when(userRepository.recordTaskChange(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTasksStatus(update));
+
+        verify(taskRepository, never()).updateStatusByUserIdAndStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateTasksStatus_RequiresExactlyOneSelector() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.updateTasksStatus(new BulkStatusUpdateDTO(List.of(1L), 1L, null, true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.updateTasksStatus(new BulkStatusUpdateDTO(null, null, null, true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.updateTasksStatus(new BulkStatusUpdateDTO(List.of(), null, null, true)));
     }
 
     @Test
     void deleteTask_Success() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(1L);
+        Cache userTasks = mock(Cache.class);
+        when(cacheManager.getCache(CacheConfig.USER_TASKS)).thenReturn(userTasks);
+        when(taskRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
+        when(taskRepository.softDeleteById(eq(1L), any(Instant.class))).thenReturn(1);
 
         taskService.deleteTask(1L);
 
-        verify(taskRepository, times(1)).existsById(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+        InOrder inOrder = inOrder(userRepository, taskRepository);
+        inOrder.verify(taskRepository).findUserIdById(1L);
+        inOrder.verify(userRepository).recordTaskChange(1L);
+        inOrder.verify(taskRepository).softDeleteById(eq(1L), any(Instant.class));
+        inOrder.verify(userRepository).recordTaskDeletion(1L, 1L);
+        verify(taskRepository, never()).deleteById(any());
+        verify(userTasks).evict(1L);
+        verify(eventPublisher).publishEvent(TaskEvent.deleted(1L, 1L));
     }
 
     @Test
     void deleteTask_NotFound() {
-        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskRepository.findUserIdById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(1L));
+
+        verify(taskRepository, times(1)).findUserIdById(1L);
+        verify(taskRepository, never()).softDeleteById(any(), any());
+        verify(userRepository, never()).recordTaskDeletion(any(), any());
+    }
+
+    @Test
+    void deleteTask_DeletedConcurrently() {
+        when(taskRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
+        when(taskRepository.softDeleteById(eq(1L), any(Instant.class))).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(1L));
 
-        verify(taskRepository, times(1)).existsById(1L);
-        verify(taskRepository, never()).deleteById(1L);
+        verify(userRepository, never()).recordTaskDeletion(any(), any());
+        verifyNoInteractions(eventPublisher);
     }
 }
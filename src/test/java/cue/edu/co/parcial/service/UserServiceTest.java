@@ -1,15 +1,22 @@
 package cue.edu.co.parcial.service;
 
+import cue.edu.co.parcial.dto.CursorPage;
+import cue.edu.co.parcial.dto.LookupResult;
+import cue.edu.co.parcial.dto.TaskStatsDTO;
 import cue.edu.co.parcial.dto.UserDTO;
 import cue.edu.co.parcial.exception.ResourceNotFoundException;
 import cue.edu.co.parcial.model.User;
+import cue.edu.co.parcial.repository.TaskRepository;
 import cue.edu.co.parcial.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +32,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private EmailRegistry emailRegistry;
+
     @InjectMocks
     private UserService userService;
 
@@ -45,8 +61,8 @@ class UserServiceTest {
 
     @Test
     void createUser_Success() {
-        when(userRepository.existsByEmail(testUserDTO.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(emailRegistry.isRegistered(testUserDTO.getEmail())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         UserDTO result = userService.createUser(testUserDTO);
 
@@ -55,23 +71,24 @@ class UserServiceTest {
         assertEquals(testUser.getName(), result.getName());
         assertEquals(testUser.getEmail(), result.getEmail());
 
-        verify(userRepository, times(1)).existsByEmail(testUserDTO.getEmail());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(emailRegistry, times(1)).isRegistered(testUserDTO.getEmail());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(emailRegistry, times(1)).registered(testUser.getEmail());
     }
 
     @Test
     void createUser_EmailAlreadyExists() {
-        when(userRepository.existsByEmail(testUserDTO.getEmail())).thenReturn(true);
+        when(emailRegistry.isRegistered(testUserDTO.getEmail())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, () -> userService.createUser(testUserDTO));
 
-        verify(userRepository, times(1)).existsByEmail(testUserDTO.getEmail());
-        verify(userRepository, never()).save(any(User.class));
+        verify(emailRegistry, times(1)).isRegistered(testUserDTO.getEmail());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     void getUserById_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(UserService.convertToDTO(testUser)));
 
         UserDTO result = userService.getUserById(1L);
 
@@ -80,16 +97,47 @@ class UserServiceTest {
         assertEquals(testUser.getName(), result.getName());
         assertEquals(testUser.getEmail(), result.getEmail());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findDtoById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void getUserById_NotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findDtoById(1L);
+    }
+
+    @Test
+    void getUsersByIds_KeepsRequestOrderAndMarksMissingIds() {
+        UserDTO first = new UserDTO(1L, "John Doe", "john@example.com", 0L);
+        UserDTO second = new UserDTO(2L, "Jane Doe", "jane@example.com", 0L);
+        when(userRepository.findDtosByIdIn(List.of(2L, 9L, 1L))).thenReturn(List.of(first, second));
+
+        List<LookupResult<UserDTO>> results = userService.getUsersByIds(List.of(2L, 9L, 1L));
+
+        assertEquals(List.of(LookupResult.found(2L, second), LookupResult.notFound(9L), LookupResult.found(1L, first)),
+                results);
+        verify(userRepository, never()).findDtoById(any());
+    }
+
+    @Test
+    void getTaskStats_ReadsTheUserCounters() {
+        TaskStatsDTO stats = new TaskStatsDTO(1L, 5L, 2L, 3L);
+        when(userRepository.findTaskStatsById(1L)).thenReturn(Optional.of(stats));
+
+        assertEquals(stats, userService.getTaskStats(1L));
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTaskStats_UserNotFound() {
+        when(userRepository.findTaskStatsById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getTaskStats(1L));
     }
 
     @Test
@@ -99,14 +147,44 @@ class UserServiceTest {
         user2.setName("Jane Doe");
         user2.setEmail("jane@example.com");
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, user2));
+        when(userRepository.findDtosByIdGreaterThan(0L, Limit.of(51)))
+                .thenReturn(Arrays.asList(UserService.convertToDTO(testUser), UserService.convertToDTO(user2)));
 
-        List<UserDTO> results = userService.getAllUsers();
+        CursorPage<UserDTO> results = userService.getAllUsers(null, 50);
 
         assertNotNull(results);
-        assertEquals(2, results.size());
+        assertEquals(2, results.getItems().size());
+        assertNull(results.getNextCursor());
+
+        verify(userRepository, times(1)).findDtosByIdGreaterThan(0L, Limit.of(51));
+    }
+
+    @Test
+    void getAllUsers_ResumesAfterCursor() {
+        User user2 = new User();
+        user2.setId(2L);
+        user2.setName("Jane Doe");
+        user2.setEmail("jane@example.com");
+
+        when(userRepository.findDtosByIdGreaterThan(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(UserService.convertToDTO(testUser), UserService.convertToDTO(user2)));
+        when(userRepository.findDtosByIdGreaterThan(1L, Limit.of(2)))
+                .thenReturn(List.of(UserService.convertToDTO(user2)));
 
-        verify(userRepository, times(1)).findAll();
+        CursorPage<UserDTO> firstPage = userService.getAllUsers(null, 1);
+        CursorPage<UserDTO> secondPage = userService.getAllUsers(firstPage.getNextCursor(), 1);
+
+        assertEquals(1L, firstPage.getItems().getFirst().getId());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(2L, secondPage.getItems().getFirst().getId());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getAllUsers_RejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getAllUsers(null, 0));
+
+        verify(userRepository, never()).findDtosByIdGreaterThan(any(), any());
     }
 
     @Test
@@ -116,13 +194,26 @@ class UserServiceTest {
         updateDTO.setEmail("john@example.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         UserDTO result = userService.updateUser(1L, updateDTO);
 
         assertNotNull(result);
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verifyNoInteractions(emailRegistry);
+    }
+
+    @Test
+    void updateUser_NewEmailIsAddedToTheRegistry() {
+        UserDTO updateDTO = new UserDTO(null, "John Doe", "john.new@example.com", null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(emailRegistry.isRegistered("john.new@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        userService.updateUser(1L, updateDTO);
+
+        verify(emailRegistry).registered("john.new@example.com");
     }
 
     @Test
@@ -132,27 +223,30 @@ class UserServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(1L, testUserDTO));
 
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     void deleteUser_Success() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(taskRepository.deleteByUserId(1L)).thenReturn(50_000);
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
 
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        InOrder inOrder = inOrder(taskRepository, userRepository);
+        inOrder.verify(taskRepository).deleteByUserId(1L);
+        inOrder.verify(userRepository).deleteUserById(1L);
+        verify(userRepository, never()).existsById(any());
+        verify(userRepository, never()).deleteById(any());
     }
 
     @Test
     void deleteUser_NotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.deleteUserById(1L)).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L));
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, never()).deleteById(1L);
+        verify(userRepository, times(1)).deleteUserById(1L);
+        verify(userRepository, never()).existsById(any());
     }
 }
@@ -0,0 +1,27 @@
+package cue.edu.co.parcial.support;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for tests of behaviour H2 does not reproduce, run against the
+ * PostgreSQL image used by docker-compose. The container is started once and
+ * shared by every subclass, so cached Spring contexts keep pointing at a live
+ * database. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+public abstract class PostgresContainerTest {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+}
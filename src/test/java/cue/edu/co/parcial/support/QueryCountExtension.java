@@ -0,0 +1,92 @@
+package cue.edu.co.parcial.support;
+
+import cue.edu.co.parcial.config.SqlStatementCounter;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resets the per-thread SQL statement counter before each test and offers
+ * assertions on the number of statements an operation issues.
+ */
+public class QueryCountExtension implements BeforeEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SqlStatementCounter.reset();
+    }
+
+    public static <T> T assertQueryCount(long expected, ThrowingSupplier<T> operation) throws Throwable {
+        SqlStatementCounter.reset();
+        T result = operation.get();
+        assertEquals(expected, SqlStatementCounter.count(), "SQL statements issued");
+        return result;
+    }
+
+    public static <T> T assertQueryCountAtMost(long max, ThrowingSupplier<T> operation) throws Throwable {
+        SqlStatementCounter.reset();
+        T result = operation.get();
+        long count = SqlStatementCounter.count();
+        assertTrue(count <= max, "expected at most " + max + " SQL statements but got " + count);
+        return result;
+    }
+
+    /**
+     * Starts the operation on {@code callers} threads at once and asserts the
+     * number of statements they issued between them. The counter is per
+     * thread, so each caller reports its own count.
+     */
+    public static <T> List<T> assertConcurrentQueryCount(long expected, int callers, ThrowingSupplier<T> operation)
+            throws Throwable {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Counted<T>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    SqlStatementCounter.reset();
+                    start.await();
+                    try {
+                        return new Counted<>(operation.get(), SqlStatementCounter.count());
+                    } catch (Exception | Error ex) {
+                        throw ex;
+                    } catch (Throwable ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            long count = 0;
+            for (Future<Counted<T>> future : futures) {
+                Counted<T> counted;
+                try {
+                    counted = future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    throw ex.getCause();
+                }
+                results.add(counted.result());
+                count += counted.count();
+            }
+            assertEquals(expected, count, "SQL statements issued");
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Counted<T>(T result, long count) {
+    }
+}